@@ -0,0 +1,62 @@
+package duke.benchmark;
+
+import java.time.LocalDateTime;
+
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Task;
+import duke.task.TaskList;
+import duke.task.Todo;
+
+/**
+ * Creates the task lists that the benchmarks run against.
+ */
+public class BenchmarkData {
+    private static final String[] WORDS = {"read", "book", "project", "meeting", "buy", "milk", "submit", "report",
+        "call", "mum", "gym", "lecture", "tutorial", "assignment", "dinner", "laundry"};
+    private static final LocalDateTime START = LocalDateTime.now().minusDays(30).withSecond(0).withNano(0);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates a task with a description made of a few common words. A third of the tasks are each of
+     * todos, deadlines and events, spread over a year starting a month ago, and a tenth of the tasks are done.
+     *
+     * @param i the number of the task, which decides what the task is
+     * @return the task
+     */
+    public static Task createTask(int i) {
+        String description = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+        LocalDateTime dateTime = START.plusMinutes((i * 7919L) % (365 * 24 * 60));
+        Task task;
+        switch (i % 3) {
+        case 0:
+            task = new Todo(description);
+            break;
+        case 1:
+            task = new Deadline(description, dateTime);
+            break;
+        default:
+            task = new Event(description, dateTime, dateTime.plusHours(2));
+        }
+        if (i % 10 == 0) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    /**
+     * Creates a task list with the given number of tasks.
+     *
+     * @param size the number of tasks
+     * @return the task list
+     */
+    public static TaskList createTaskList(int size) {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < size; i++) {
+            taskList.addTask(createTask(i));
+        }
+        return taskList;
+    }
+}
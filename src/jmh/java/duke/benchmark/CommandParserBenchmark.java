@@ -0,0 +1,99 @@
+package duke.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import duke.exception.DukeException;
+import duke.logic.CommandParser;
+import duke.logic.Storage;
+import duke.task.TaskList;
+import duke.ui.Ui;
+
+/**
+ * Benchmarks the throughput of commands from parsing the input to saving the changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CommandParserBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+    private File dataFile;
+    private TaskList taskList;
+    private Storage storage;
+    private Ui ui;
+
+    /**
+     * Creates a saved task list with the given number of tasks.
+     *
+     * @throws IOException when the data file cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        dataFile = File.createTempFile("duke-benchmark", ".txt");
+        dataFile.delete();
+        taskList = BenchmarkData.createTaskList(size);
+        storage = new Storage(dataFile.getPath(), taskList);
+        storage.updateDukeTextFile();
+        ui = new Ui("Benchmark");
+    }
+
+    /**
+     * Deletes the data file and its journal.
+     */
+    @TearDown
+    public void tearDown() {
+        dataFile.delete();
+        new File(dataFile.getPath() + ".journal").delete();
+    }
+
+    private String run(String input) {
+        return new CommandParser(input, taskList, storage, ui).getOutput();
+    }
+
+    /**
+     * Adds a deadline and then deletes it.
+     *
+     * @return the output of the delete command
+     */
+    @Benchmark
+    public String addAndDelete() {
+        run("deadline submit benchmark report /by 31/12/2090 23:59");
+        return run("delete " + taskList.size());
+    }
+
+    @Benchmark
+    public String find() {
+        return run("find meeting");
+    }
+
+    @Benchmark
+    public String upcoming() {
+        return run("upcoming");
+    }
+
+    /**
+     * Runs a command that is not valid.
+     *
+     * @return the error message
+     */
+    @Benchmark
+    public String invalidCommand() {
+        try {
+            return run("blah blah");
+        } catch (DukeException e) {
+            return e.getMessage();
+        }
+    }
+}
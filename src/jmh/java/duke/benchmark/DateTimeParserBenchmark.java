@@ -0,0 +1,40 @@
+package duke.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import duke.logic.DateTimeParser;
+
+/**
+ * Benchmarks parsing dates and times from user input and from the data file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateTimeParserBenchmark {
+    private String userDateTime = "19/9/2021 14:00";
+    private String userTime = "9:30";
+    private String dataDateTime = "2021-09-19 14:00";
+
+    @Benchmark
+    public DateTimeParser parseUserDateTime() {
+        return new DateTimeParser(userDateTime);
+    }
+
+    @Benchmark
+    public DateTimeParser parseUserTime() {
+        return new DateTimeParser(userTime);
+    }
+
+    @Benchmark
+    public LocalDateTime parseDataDateTime() {
+        return DateTimeParser.getDateTimeFromDataString(dataDateTime);
+    }
+}
@@ -0,0 +1,111 @@
+package duke.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import duke.logic.Storage;
+import duke.task.TaskList;
+import duke.task.Todo;
+
+/**
+ * Benchmarks loading and saving the data file with {@link Storage}, in both the text and binary formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+    @Param({".txt", ".dkb"})
+    private String extension;
+    private File dataFile;
+    private TaskList taskList;
+    private Storage storage;
+
+    /**
+     * Writes a data file with the given number of tasks.
+     *
+     * @throws IOException when the data file cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        dataFile = File.createTempFile("duke-benchmark", extension);
+        dataFile.delete();
+        taskList = BenchmarkData.createTaskList(size);
+        storage = new Storage(dataFile.getPath(), taskList);
+        storage.updateDukeTextFile();
+    }
+
+    /**
+     * Deletes the data file and its journal.
+     */
+    @TearDown
+    public void tearDown() {
+        dataFile.delete();
+        new File(dataFile.getPath() + ".journal").delete();
+    }
+
+    /**
+     * Loads the data file and reads every task, as listing all tasks would.
+     *
+     * @return the loaded task list
+     * @throws IOException when the data file cannot be read
+     */
+    @Benchmark
+    public TaskList load() throws IOException {
+        TaskList loaded = new TaskList();
+        new Storage(dataFile.getPath(), loaded);
+        loaded.getTasks().forEach(task -> { });
+        return loaded;
+    }
+
+    /**
+     * Loads the data file without reading the tasks, as starting Duke would.
+     *
+     * @return the loaded task list
+     * @throws IOException when the data file cannot be read
+     */
+    @Benchmark
+    public TaskList start() throws IOException {
+        TaskList loaded = new TaskList();
+        new Storage(dataFile.getPath(), loaded);
+        return loaded;
+    }
+
+    /**
+     * Rewrites the whole data file.
+     *
+     * @throws IOException when the data file cannot be written
+     */
+    @Benchmark
+    public void save() throws IOException {
+        storage.updateDukeTextFile();
+    }
+
+    /**
+     * Saves a single added and removed task, as a command would.
+     *
+     * @throws IOException when the data file or its journal cannot be written
+     */
+    @Benchmark
+    public void saveChange() throws IOException {
+        Todo todo = new Todo("benchmark");
+        taskList.addTask(todo);
+        storage.recordAddedTask(todo);
+        storage.flush();
+        taskList.removeTask(taskList.size());
+        storage.recordRemovedTask(taskList.size() + 1);
+        storage.flush();
+    }
+}
@@ -0,0 +1,60 @@
+package duke.benchmark;
+
+import static java.util.AbstractMap.SimpleImmutableEntry;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import duke.task.Task;
+import duke.task.TaskList;
+
+/**
+ * Benchmarks the queries of {@link TaskList}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskListBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+    private TaskList taskList;
+
+    /**
+     * Fills the task list and builds its indexes with a first query.
+     */
+    @Setup
+    public void setUp() {
+        taskList = BenchmarkData.createTaskList(size);
+        taskList.getUpcomingTasks();
+        taskList.getTasksContaining("book");
+    }
+
+    @Benchmark
+    public List<SimpleImmutableEntry<? extends Task, Integer>> getUpcomingTasks() {
+        return taskList.getUpcomingTasks();
+    }
+
+    @Benchmark
+    public List<SimpleImmutableEntry<? extends Task, Integer>> getTasksContainingWord() {
+        return taskList.getTasksContaining("meeting");
+    }
+
+    @Benchmark
+    public List<SimpleImmutableEntry<? extends Task, Integer>> getTasksContainingWords() {
+        return taskList.getTasksContaining("project milk");
+    }
+
+    @Benchmark
+    public List<SimpleImmutableEntry<? extends Task, Integer>> getTasksContainingNumber() {
+        return taskList.getTasksContaining(String.valueOf(size / 2));
+    }
+}
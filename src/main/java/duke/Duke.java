@@ -1,16 +1,39 @@
 package duke;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
+import duke.logic.LoadReport;
 import duke.logic.Storage;
+import duke.metrics.Metrics;
+import duke.reminder.Reminders;
 import duke.task.TaskList;
+import duke.ui.BatchUi;
 import duke.ui.TextCliUi;
 
 /**
  * Duke is a personal assistant that allows users to keep track of events, deadlines and things to do.
  * The main method will start the personal assistant in the console.
+ *
+ * <p>Given {@code --batch <script>}, the main method instead runs the commands in the script
+ * (or standard input if the script is {@code -}), see {@link BatchUi}.</p>
  */
 public class Duke {
+    private static final String DEFAULT_FILE_PATH = "./dukedata.txt";
+    private static final String BATCH_OPTION = "--batch";
+    private static final String FLUSH_INTERVAL_OPTION = "--flush-every";
+    private static final String DATA_FILE_OPTION = "--data";
+    private static final String COLUMNAR_OPTION = "--columnar";
+    private static final String STANDARD_INPUT = "-";
+    private static final String USAGE = "Usage: duke [--batch <script file or - for stdin>"
+        + " [--flush-every <number of commands, 0 to flush at the end>] [--data <data file>] [--columnar]]";
     private final TaskList taskList;
     private final Storage storage;
 
@@ -20,8 +43,19 @@ public class Duke {
      * @param filePath the path where the data of the tasks will be saved
      */
     public Duke(String filePath) throws IOException {
-        taskList = new TaskList();
+        this(filePath, false);
+    }
+
+    /**
+     * Creates a new instance of a duke chat-bot, which may store the tasks in columns to save memory.
+     *
+     * @param filePath   the path where the data of the tasks will be saved
+     * @param isColumnar true to store the tasks in columns, see {@link TaskList#TaskList(int, boolean)}
+     */
+    public Duke(String filePath, boolean isColumnar) throws IOException {
+        taskList = new TaskList(Integer.MAX_VALUE, isColumnar);
         storage = new Storage(filePath, taskList);
+        Metrics.watch(taskList);
     }
 
     /**
@@ -29,22 +63,93 @@ public class Duke {
      */
     public Duke() throws IOException {
         taskList = new TaskList(100);
-        storage = new Storage("./dukedata.txt", taskList);
+        storage = new Storage(DEFAULT_FILE_PATH, taskList);
+        Metrics.watch(taskList);
     }
 
     /**
-     * Runs the duke chat-bot on the command line with default filepath and limit.
+     * Runs the duke chat-bot on the command line with default filepath and limit,
+     * or runs a script of commands if the batch option is given.
      *
-     * @param args irrelevant for now
+     * @param args the batch options, if any
      */
     public static void main(String[] args) {
         try {
-            new Duke().run();
+            if (args.length == 0) {
+                new Duke().run();
+            } else {
+                runBatch(args);
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Runs a script of commands given by the batch options. The task list of a batch has no limit,
+     * so that large scripts can be imported.
+     */
+    private static void runBatch(String[] args) throws IOException {
+        String scriptPath = null;
+        String dataFilePath = DEFAULT_FILE_PATH;
+        int flushInterval = 0;
+        boolean isColumnar = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals(COLUMNAR_OPTION)) {
+                    isColumnar = true; // The only option without a value
+                    continue;
+                }
+                String option = args[i];
+                String value = args[++i];
+                switch (option) {
+                case BATCH_OPTION:
+                    scriptPath = value;
+                    break;
+                case FLUSH_INTERVAL_OPTION:
+                    flushInterval = Integer.parseInt(value);
+                    break;
+                case DATA_FILE_OPTION:
+                    dataFilePath = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException(option);
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            scriptPath = null;
+        }
+        if (scriptPath == null || flushInterval < 0) {
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        Duke duke = new Duke(dataFilePath, isColumnar);
+        duke.showLoadReport();
+        BatchUi batchUi = new BatchUi(System.getProperty("user.name", "there"), flushInterval);
+        int failedCount;
+        try (BufferedReader script = scriptPath.equals(STANDARD_INPUT)
+            ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+            : Files.newBufferedReader(Paths.get(scriptPath), StandardCharsets.UTF_8);
+             Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            failedCount = batchUi.run(script, output, duke.taskList, duke.storage);
+        }
+        if (failedCount > 0) {
+            System.err.println(failedCount + " command(s) failed");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Tells the user of the lines of the data file that could not be read, if there are any.
+     */
+    private void showLoadReport() {
+        LoadReport loadReport = storage.getLoadReport();
+        if (loadReport.getQuarantinedCount() > 0) {
+            System.out.println(loadReport);
+        }
+    }
+
     public TaskList getTaskList() {
         return taskList;
     }
@@ -54,12 +159,17 @@ public class Duke {
     }
 
     /**
-     * Runs the duke chat-bot.
+     * Runs the duke chat-bot, reminding the user of deadlines and events shortly before they are due.
      */
     public void run() {
+        showLoadReport();
         TextCliUi ui = new TextCliUi();
-        while (!ui.willExit()) {
-            ui.checkInput(taskList, storage);
+        try (Reminders reminders = new Reminders(Reminders.DEFAULT_LEAD_TIME, ui::showReminder)) {
+            reminders.watch(taskList);
+            reminders.start();
+            while (!ui.willExit()) {
+                ui.checkInput(taskList, storage);
+            }
         }
     }
 }
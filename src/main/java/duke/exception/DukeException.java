@@ -2,6 +2,9 @@ package duke.exception;
 
 /**
  * DukeException is a runtime exception for exceptions generated due to invalid inputs or problems adding tasks.
+ *
+ * <p>These are expected whenever the user makes a typo, so most of them do not capture a stack trace,
+ * which would cost more than the rest of the command.</p>
  */
 public class DukeException extends RuntimeException {
 
@@ -11,7 +14,18 @@ public class DukeException extends RuntimeException {
      * @param message the description of the error
      */
     public DukeException(String message) {
-        super(message);
+        super(message, null, false, false);
+    }
+
+    /**
+     * Creates a new runtime exception when a command fails for a reason other than the user's input,
+     * such as the data file not being written. Unlike the others, it keeps the stack trace and the cause.
+     *
+     * @param message the description of the error
+     * @param cause   the exception that caused the error
+     */
+    public DukeException(String message, Throwable cause) {
+        super(message, cause);
     }
 
     /**
@@ -0,0 +1,354 @@
+package duke.logic;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import duke.exception.DukeException;
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Recurrence;
+import duke.task.Recurring;
+import duke.task.RecurringDeadline;
+import duke.task.RecurringEvent;
+import duke.task.Task;
+import duke.task.TaskList;
+import duke.task.Todo;
+
+/**
+ * A binary snapshot of the task list, which can be mapped into memory and decoded one task at a time.
+ *
+ * <p>The file starts with a fixed header (magic number, version, number of tasks and a checksum),
+ * followed by the offset of every task record. Each record holds the task type, whether it is done or recurs,
+ * its date and times in minutes since the epoch, its description in UTF-8 and then how often it recurs, if it does.
+ * Since the offsets are known up front, a task is only decoded when it is first accessed.
+ * Files of version 1, from before tasks could recur, are still read.</p>
+ *
+ * <p>A mapped file cannot be replaced on some systems, such as Windows, so the snapshot is closed before
+ * the file is rewritten, see {@link #close()}.</p>
+ */
+public class BinarySnapshot implements Closeable {
+    /** The file extension that makes {@link Storage} save new data files in this format. */
+    public static final String FILE_EXTENSION = ".dkb";
+    private static final int MAGIC = 0x44554B42; // "DUKB"
+    private static final int VERSION = 2; // Version 1 has no recurring tasks
+    private static final int HEADER_SIZE = 24; // magic, version, count, (unused), checksum
+    private static final int OFFSET_SIZE = Long.BYTES;
+    private static final int OFFSETS_PER_WRITE = 8192;
+    private static final long MAX_FILE_SIZE = Integer.MAX_VALUE; // The most that can be mapped at once
+    private static final String TOO_LARGE_MESSAGE = "Binary data files cannot be larger than 2GB.";
+    private static final byte DONE = 1;
+    private static final byte RECURRING = 2;
+    private static final MethodHandle UNMAPPER = findUnmapper(); // Null if mappings can only be garbage collected
+
+    private volatile MappedByteBuffer buffer; // Null once closed
+    private final int count;
+    private final long checksum;
+
+    private BinarySnapshot(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new DukeException("This is not a duke binary data file.");
+        }
+        if (buffer.getInt(4) < 1 || buffer.getInt(4) > VERSION) {
+            throw new DukeException("This duke binary data file has an unsupported version %d.", buffer.getInt(4));
+        }
+        count = buffer.getInt(8);
+        checksum = buffer.getLong(16);
+    }
+
+    /**
+     * Maps the binary snapshot file into memory. No task is decoded until it is accessed.
+     *
+     * @param file the binary snapshot file
+     * @return the mapped snapshot
+     * @throws IOException when the file cannot be read or is too large to be mapped
+     */
+    public static BinarySnapshot open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath())) {
+            if (channel.size() > MAX_FILE_SIZE) {
+                throw new IOException(TOO_LARGE_MESSAGE);
+            }
+            // The mapping stays valid after the channel is closed.
+            return new BinarySnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Checks if the file is a binary snapshot, based on its first four bytes.
+     *
+     * @param file the file to be checked
+     * @return true if the file starts with the magic number of a binary snapshot
+     */
+    public static boolean isBinarySnapshot(File file) {
+        if (file.length() < HEADER_SIZE) {
+            return false;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            return raf.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes the tasks into the file as a binary snapshot.
+     *
+     * @param tasks the tasks to be written, in order
+     * @param file  the file to be written to
+     * @return the checksum of the task records, which is also saved in the header
+     * @throws IOException when the file cannot be written, or would be too large to be mapped when read
+     */
+    public static long write(List<Task> tasks, File file) throws IOException {
+        long offset = HEADER_SIZE + (long) OFFSET_SIZE * tasks.size();
+        if (offset > MAX_FILE_SIZE) {
+            throw new IOException(TOO_LARGE_MESSAGE);
+        }
+        long[] offsets = new long[tasks.size()];
+        CRC32 crc = new CRC32();
+        try (FileOutputStream fileOutput = new FileOutputStream(file)) {
+            fileOutput.getChannel().position(offset); // The header and offsets are filled in after the records.
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(fileOutput, crc)));
+            for (int i = 0; i < tasks.size(); i++) {
+                offsets[i] = offset;
+                offset += writeRecord(tasks.get(i), output);
+                if (offset > MAX_FILE_SIZE) {
+                    throw new IOException(TOO_LARGE_MESSAGE);
+                }
+            }
+            output.flush();
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(tasks.size()).putInt(0).putLong(crc.getValue());
+            raf.write(header.array());
+            // The offsets are written a chunk at a time, rather than all in one buffer as large as the table.
+            ByteBuffer chunk = ByteBuffer.allocate(OFFSET_SIZE * OFFSETS_PER_WRITE);
+            for (int first = 0; first < offsets.length; first += OFFSETS_PER_WRITE) {
+                chunk.clear();
+                for (int i = first; i < Math.min(first + OFFSETS_PER_WRITE, offsets.length); i++) {
+                    chunk.putLong(offsets[i]);
+                }
+                raf.write(chunk.array(), 0, chunk.position());
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static int writeRecord(Task task, DataOutputStream output) throws IOException {
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        output.writeByte(task.getTaskType().charAt(0));
+        output.writeByte((task.isDone() ? DONE : 0) | (task instanceof Recurring ? RECURRING : 0));
+        int size = 2;
+        switch (task.getTaskType()) {
+        case "T":
+            break;
+        case "D":
+            output.writeLong(toEpochMinute(task.getDateTime()));
+            size += Long.BYTES;
+            break;
+        case "E":
+            output.writeLong(toEpochMinute(task.getDateTime()));
+            output.writeLong(toEpochMinute(((Event) task).getEndDateTime()));
+            size += 2 * Long.BYTES;
+            break;
+        default:
+            throw new DukeException("Tasks of type %s cannot be saved.", task.getTaskType());
+        }
+        output.writeInt(description.length);
+        output.write(description);
+        size += Integer.BYTES + description.length;
+        if (task instanceof Recurring) {
+            byte[] recurrence = ((Recurring) task).getRecurrence().toString().getBytes(StandardCharsets.UTF_8);
+            output.writeInt(recurrence.length);
+            output.write(recurrence);
+            size += Integer.BYTES + recurrence.length;
+        }
+        return size;
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Gets the number of tasks in the snapshot.
+     *
+     * @return the number of tasks
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets the checksum of the task records, as saved in the header when the snapshot was written.
+     *
+     * @return the checksum
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Decodes the task at the index of the snapshot.
+     *
+     * @param index the zero-based index of the task
+     * @return a newly decoded task
+     */
+    public Task decode(int index) {
+        MappedByteBuffer mapped = buffer;
+        if (mapped == null) {
+            throw new IllegalStateException("The binary snapshot has been closed.");
+        }
+        ByteBuffer record = mapped.duplicate();
+        record.position((int) mapped.getLong(HEADER_SIZE + OFFSET_SIZE * index));
+        char taskType = (char) record.get();
+        byte flags = record.get();
+        boolean isDone = (flags & DONE) != 0;
+        long start = taskType == 'T' ? 0 : record.getLong();
+        long end = taskType == 'E' ? record.getLong() : 0;
+        String descriptionString = readString(record);
+        Recurrence recurrence = (flags & RECURRING) != 0 ? Recurrence.parse(readString(record)
+            .substring(Recurrence.PREFIX.length())) : null;
+        Task task;
+        switch (taskType) {
+        case 'T':
+            task = new Todo(descriptionString);
+            break;
+        case 'D':
+            task = recurrence == null
+                ? new Deadline(descriptionString, fromEpochMinute(start))
+                : new RecurringDeadline(descriptionString, fromEpochMinute(start), recurrence);
+            break;
+        case 'E':
+            task = recurrence == null
+                ? new Event(descriptionString, fromEpochMinute(start), fromEpochMinute(end))
+                : new RecurringEvent(descriptionString, fromEpochMinute(start), fromEpochMinute(end), recurrence);
+            break;
+        default:
+            throw new DukeException("Storage file is corrupted. Please fix it or delete the file.");
+        }
+        if (isDone) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    /**
+     * Gets the class of the task at the index of the snapshot, reading only its type and flags.
+     *
+     * @param index the zero-based index of the task
+     * @return the class of the task that {@link #decode(int)} would return
+     */
+    public Class<? extends Task> getTaskClass(int index) {
+        MappedByteBuffer mapped = buffer;
+        if (mapped == null) {
+            throw new IllegalStateException("The binary snapshot has been closed.");
+        }
+        int position = (int) mapped.getLong(HEADER_SIZE + OFFSET_SIZE * index);
+        boolean isRecurring = (mapped.get(position + 1) & RECURRING) != 0;
+        switch ((char) mapped.get(position)) {
+        case 'T':
+            return Todo.class;
+        case 'D':
+            return isRecurring ? RecurringDeadline.class : Deadline.class;
+        case 'E':
+            return isRecurring ? RecurringEvent.class : Event.class;
+        default:
+            throw new DukeException("Storage file is corrupted. Please fix it or delete the file.");
+        }
+    }
+
+    /**
+     * Unmaps the file right away rather than once the snapshot is garbage collected, so that the file can be
+     * replaced. Every task that is still needed must have been decoded by then.
+     */
+    @Override
+    public void close() {
+        MappedByteBuffer mapped = buffer;
+        buffer = null;
+        if (mapped != null && UNMAPPER != null) {
+            try {
+                UNMAPPER.invokeExact((ByteBuffer) mapped);
+            } catch (Throwable e) {
+                // Left to be unmapped once garbage collected
+            }
+        }
+    }
+
+    /**
+     * Finds the unsupported but widely used way to unmap a buffer before it is garbage collected.
+     */
+    private static MethodHandle findUnmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            return MethodHandles.lookup()
+                .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                .bindTo(unsafeField.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String readString(ByteBuffer record) {
+        byte[] bytes = new byte[record.getInt()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts a data file from the text format to the binary format or the other way round,
+     * depending on the format of the input file.
+     *
+     * @param args the input file followed by the output file
+     * @throws IOException when either file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: BinarySnapshot <input data file> <output data file>");
+            return;
+        }
+        File input = new File(args[0]);
+        File output = new File(args[1]);
+        TaskList taskList = new TaskList();
+        if (isBinarySnapshot(input)) {
+            BinarySnapshot snapshot = open(input);
+            taskList.addTasksLazily(snapshot.size(), snapshot::decode, snapshot::getTaskClass);
+            Storage.writeTextSnapshot(taskList.getTasks(), output);
+        } else {
+            try (Quarantine quarantine = new Quarantine(input)) {
+                Storage.readTextSnapshot(taskList, input, quarantine);
+                if (quarantine.getCount() > 0) {
+                    System.out.printf("Skipped %d line(s) that could not be read, see %s\n", quarantine.getCount(),
+                        quarantine.getFile());
+                }
+            }
+            write(taskList.getTasks(), output);
+        }
+        System.out.printf("Converted %d tasks from %s to %s\n", taskList.size(), input, output);
+    }
+}
@@ -1,9 +1,16 @@
 package duke.logic;
 
+import static java.util.AbstractMap.SimpleImmutableEntry;
+
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import duke.exception.DukeException;
 import duke.exception.InvalidCommandException;
+import duke.metrics.Metrics;
 import duke.task.Task;
 import duke.task.TaskList;
 import duke.task.TasksEnum;
@@ -17,9 +24,16 @@ public class CommandParser {
     private static final String EMPTY_INPUT_MESSAGE = "Input is empty. Type \"help\" for more information.";
     private static final String TOO_LITTLE_ARGUMENTS_MESSAGE = "Too little arguments. Type \"help\" "
         + "followed by the command for more information.";
-    private static final String INVALID_NUMBER_MESSAGE = "Please input a valid task number after the command.";
-    private final String output;
+    private static final String BETWEEN_USAGE_MESSAGE = "Please give the start and the end of the window, "
+        + "like: between 1/1/2030 9:00 31/1/2030 17:00";
+    private static final String INVALID_COMMAND_NAME = "invalid";
+    private static final String OUTPUT_SUFFIX = " output";
+    private final int maxResults; // The most tasks that a listing command shows at once
+    private String output; // Null until the output of a listing command is rendered
+    private String moreResultsMessage; // Null unless a listing command leaves out some of the results
+    private OutputWriter outputWriter; // Writes the output of listing commands, which can be very long
     private boolean isExiting;
+    private String commandName = INVALID_COMMAND_NAME; // The name that the duration of the command is recorded under
 
     /**
      * Creates a new command parser for the input.
@@ -30,43 +44,249 @@ public class CommandParser {
      * @param ui       The user interface generating output messages.
      */
     public CommandParser(String input, TaskList taskList, Storage storage, Ui ui) {
+        this(input, taskList, storage, ui, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new command parser for the input, whose listing commands show at most the given number of tasks,
+     * such as for a window that cannot show a million of them at once. The output then tells the user
+     * how to see the others.
+     *
+     * @param input      The string input from the user.
+     * @param storage    The storage logic that allows the command parser to write the task list data to it.
+     * @param taskList   The list of tasks.
+     * @param ui         The user interface generating output messages.
+     * @param maxResults The most tasks that a listing command shows, such as {@link Page#PAGE_SIZE}.
+     */
+    public CommandParser(String input, TaskList taskList, Storage storage, Ui ui, int maxResults) {
+        this.maxResults = maxResults;
+        long start = Metrics.startTimer();
+        try {
+            parse(input, taskList, storage, ui);
+        } finally {
+            Metrics.recordCommand(commandName, start);
+        }
+    }
+
+    /**
+     * Parses and runs the command, leaving the output of the commands listing tasks to be written later.
+     *
+     * @param input    The string input from the user.
+     * @param storage  The storage logic that allows the command parser to write the task list data to it.
+     * @param taskList The list of tasks.
+     * @param ui       The user interface generating output messages.
+     */
+    private void parse(String input, TaskList taskList, Storage storage, Ui ui) {
         if (input == null || input.equals("")) {
             throw new InvalidCommandException(EMPTY_INPUT_MESSAGE);
         }
-        String[] inputArr = input.split(" ", 2);
-        CommandsEnum commandEnum;
+        int space = input.indexOf(' ');
+        CommandsEnum commandEnum = CommandsEnum.fromVerb(space < 0 ? input : input.substring(0, space));
+        String arguments = space < 0 ? null : input.substring(space + 1); // Null if there are no arguments
+        if (commandEnum == null) {
+            throw new InvalidCommandException(INVALID_COMMAND);
+        }
+        commandName = commandEnum.getVerb();
+        if (commandEnum.isArgumentRequired() && arguments == null) {
+            throw new InvalidCommandException(TOO_LITTLE_ARGUMENTS_MESSAGE);
+        }
+        this.isExiting = false;
+        switch (commandEnum) {
+        // Single word commands
+        case BYE:
+            syncStorage(storage); // Changes may still be waiting to be written
+            output = ui.getGoodByeMessage();
+            isExiting = true;
+            return;
+        case LIST:
+            List<Task> allTasks = taskList.getTasks();
+            Page listPage = limit(Page.parse(arguments), allTasks.size(), ui);
+            List<Task> tasks = listPage.of(allTasks);
+            outputWriter = out -> ui.writeAllTasks(out, tasks, listPage.getFirst(), allTasks.size());
+            return;
+        case UPCOMING:
+            int size = taskList.size();
+            List<SimpleImmutableEntry<? extends Task, Integer>> upcomingTasks =
+                limit(Page.parse(arguments), taskList.getUpcomingTasks(), ui);
+            outputWriter = out -> ui.writeUpcomingTasks(out, upcomingTasks, size);
+            return;
+        case FIND:
+            findTasks(arguments, taskList, ui);
+            return;
+        case BETWEEN:
+            findEventsBetween(arguments, taskList, ui);
+            return;
+        case CONFLICTS:
+            int taskCount = taskList.size();
+            List<SimpleImmutableEntry<? extends Task, Integer>> conflictingEvents =
+                limit(Page.parse(arguments), taskList.getConflictingEvents(), ui);
+            outputWriter = out -> ui.writeConflictingEvents(out, conflictingEvents, taskCount);
+            return;
+        case STATS:
+            output = showStats(arguments == null ? "" : arguments.trim(), taskList, ui);
+            return;
+        case HELP:
+            CommandsEnum helpCommand = arguments == null ? null : CommandsEnum.fromVerb(arguments);
+            if (arguments != null && helpCommand == null) {
+                throw new InvalidCommandException(INVALID_COMMAND);
+            }
+            output = ui.displayHelpMessage(helpCommand);
+            return;
+        default:
+            output = parseMultiWord(arguments, commandEnum, taskList, storage, ui);
+        }
+        if (!commandEnum.isMutating() || !taskList.isDirty()) {
+            return; // Nothing to save
+        }
         try {
-            commandEnum = CommandsEnum.valueOf(inputArr[0].toUpperCase());
-            this.isExiting = false;
-            switch (commandEnum) {
-            // Single word commands
-            case BYE:
-                output = ui.getGoodByeMessage();
-                isExiting = true;
-                return;
-            case LIST:
-                output = ui.getAllTasksMessage(taskList.getAllTasks(), taskList.size());
-                return;
-            case UPCOMING:
-                output = ui.getUpcomingTasksMessage(taskList.getUpcomingTasks(), taskList.size());
-                return;
-            case HELP:
-                output = ui.displayHelpMessage(
-                    inputArr.length == 1 ? null : CommandsEnum.valueOf(inputArr[1].toUpperCase()));
-                return;
-            default:
-                if (inputArr.length < 2) {
-                    throw new InvalidCommandException(TOO_LITTLE_ARGUMENTS_MESSAGE);
-                }
-                output = parseMultiWord(inputArr[1], commandEnum, taskList, ui);
+            storage.completeCommand();
+        } catch (IOException e) {
+            throw new DukeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Finds the tasks containing the pattern, which may be followed by the page of results to be shown.
+     *
+     * @param inputWords The input string without the command.
+     * @param taskList   The list of tasks to be searched.
+     * @param ui         The user interface generating the output messages.
+     */
+    private void findTasks(String inputWords, TaskList taskList, Ui ui) {
+        int pageIndex = indexOfPageOption(inputWords);
+        String pattern = pageIndex < inputWords.length() ? inputWords.substring(0, pageIndex).trim() : inputWords;
+        Page page = Page.parse(inputWords.substring(pageIndex));
+        if (pattern.isBlank()) {
+            throw new InvalidCommandException(TOO_LITTLE_ARGUMENTS_MESSAGE);
+        }
+        String finalPattern = pattern;
+        int size = taskList.size();
+        List<SimpleImmutableEntry<? extends Task, Integer>> foundTasks =
+            limit(page, taskList.getTasksContaining(pattern), ui);
+        outputWriter = out -> ui.writeTasksWithPattern(out, finalPattern, foundTasks, size);
+    }
+
+    /**
+     * Finds the events between two dates and/or times, which may be followed by the page of results to be shown.
+     * A date without a time is the start of the day for the first, and the end of the day for the second,
+     * so that both days are included.
+     *
+     * @param inputWords The input string without the command.
+     * @param taskList   The list of tasks to be searched.
+     * @param ui         The user interface generating the output messages.
+     */
+    private void findEventsBetween(String inputWords, TaskList taskList, Ui ui) {
+        int pageIndex = indexOfPageOption(inputWords);
+        Page page = Page.parse(inputWords.substring(pageIndex));
+        List<String> dateTimes = new ArrayList<>(2);
+        for (String word : inputWords.substring(0, pageIndex).split(" ")) {
+            int last = dateTimes.size() - 1;
+            if (last >= 0 && !word.contains("/") && !dateTimes.get(last).contains(":")) {
+                dateTimes.set(last, dateTimes.get(last) + " " + word); // The time of the date before it
+            } else if (!word.isEmpty()) {
+                dateTimes.add(word);
             }
-        } catch (IllegalArgumentException e) {
+        }
+        if (dateTimes.size() != 2) {
+            throw new InvalidCommandException(BETWEEN_USAGE_MESSAGE);
+        }
+        String start = dateTimes.get(0);
+        LocalDateTime from = toLocalDateTime(new DateTimeParser(start.contains(":") ? start : start + " 0:00"));
+        LocalDateTime to = toLocalDateTime(new DateTimeParser(dateTimes.get(1)));
+        if (from.isAfter(to)) {
+            throw new InvalidCommandException(BETWEEN_USAGE_MESSAGE);
+        }
+        int size = taskList.size();
+        List<SimpleImmutableEntry<? extends Task, Integer>> events =
+            limit(page, taskList.getEventsBetween(from, to), ui);
+        outputWriter = out -> ui.writeEventsBetween(out, from, to, events, size);
+    }
+
+    /**
+     * Finds the page option at the end of the arguments, such as in {@code find book --page 2}.
+     *
+     * @param inputWords The input string without the command.
+     * @return The index of the page option, or the length of the input if there is none.
+     */
+    private static int indexOfPageOption(String inputWords) {
+        int pageIndex = inputWords.lastIndexOf(Page.PAGE_OPTION + " ");
+        return pageIndex == 0 || pageIndex > 0 && inputWords.charAt(pageIndex - 1) == ' '
+            ? pageIndex
+            : inputWords.length();
+    }
+
+    /**
+     * Limits the page to the most results shown at once, noting how to see the others if any are left out.
+     *
+     * @param page        The page asked for by the user.
+     * @param resultCount The number of all the results.
+     * @param ui          The user interface generating the output messages.
+     * @return The page of results to be shown.
+     */
+    private Page limit(Page page, int resultCount, Ui ui) {
+        Page limitedPage = page.limit(maxResults);
+        int shownCount = limitedPage.count(resultCount);
+        if (shownCount < page.count(resultCount)) {
+            moreResultsMessage = ui.getMoreResultsMessage(shownCount, page.count(resultCount));
+        }
+        return limitedPage;
+    }
+
+    private <T> List<T> limit(Page page, List<T> results, Ui ui) {
+        return limit(page, results.size(), ui).of(results);
+    }
+
+    private static LocalDateTime toLocalDateTime(DateTimeParser parser) {
+        return LocalDateTime.of(parser.getDate(), parser.getTime());
+    }
+
+    /**
+     * Shows the metrics, or turns them on or off, or clears them.
+     *
+     * @param option   Empty to show the metrics, or one of on, off and reset.
+     * @param taskList The list of tasks to be counted.
+     * @param ui       The user interface generating the output messages.
+     * @return The output string from ui.
+     */
+    private static String showStats(String option, TaskList taskList, Ui ui) {
+        Metrics metrics = Metrics.get();
+        switch (option) {
+        case "":
+            return ui.getStatsMessage(metrics, Metrics.countTasksByType(taskList));
+        case "on": // fallthrough intended
+        case "off":
+            metrics.setEnabled(option.equals("on"));
+            return ui.getStatsSwitchedMessage(metrics.isEnabled());
+        case "reset":
+            metrics.reset();
+            return ui.getStatsResetMessage();
+        default:
             throw new InvalidCommandException(INVALID_COMMAND);
         }
+    }
+
+    /**
+     * Checks if the input is a command that only reads the task list, such as list or find.
+     * Such commands can run at the same time as each other, while other commands change the list or the storage
+     * and must run one at a time.
+     *
+     * @param input The string input from the user.
+     * @return true if the command only reads the task list, or false if it may change it or is not valid
+     */
+    public static boolean isReadOnly(String input) {
+        if (input == null) {
+            return false;
+        }
+        int space = input.indexOf(' ');
+        CommandsEnum commandEnum = CommandsEnum.fromVerb(space < 0 ? input : input.substring(0, space));
+        return commandEnum != null && !commandEnum.isMutating() && commandEnum != CommandsEnum.BYE;
+    }
+
+    private static void syncStorage(Storage storage) {
         try {
-            storage.updateDukeTextFile();
+            storage.sync();
         } catch (IOException e) {
-            throw new DukeException(e.getMessage());
+            throw new DukeException(e.getMessage(), e);
         }
     }
 
@@ -76,34 +296,41 @@ public class CommandParser {
      * @param inputWords   The input string without the command.
      * @param commandsEnum The enum representing the command.
      * @param taskList     The list of tasks to be interacted with.
+     * @param storage      The storage that records the changes made to the list of tasks.
      * @param ui           The user interface generating the output messages.
      * @return The output string from ui.
      */
-    private static String parseMultiWord(String inputWords, CommandsEnum commandsEnum, TaskList taskList, Ui ui) {
+    private static String parseMultiWord(String inputWords, CommandsEnum commandsEnum, TaskList taskList,
+                                         Storage storage, Ui ui) {
         switch (commandsEnum) {
-        case FIND:
-            return ui.getTasksWithPatternMessage(inputWords,
-                taskList.getTasksContaining(inputWords), taskList.size());
-        case TODO: // fallthrough intended // From here on, there will be updates to the storage.
+        case TODO: // fallthrough intended // From here on, the commands are mutating.
         case EVENT: // fallthrough intended
         case DEADLINE:
-            return ui.addTaskMessage(addTask(commandsEnum.name(), inputWords, taskList), taskList.size());
+            Task addedTask = addTask(commandsEnum.name(), inputWords, taskList);
+            storage.recordAddedTask(addedTask);
+            return ui.addTaskMessage(addedTask, taskList.size());
         default:
-            int taskNumber;
-            try {
-                taskNumber = Integer.parseInt(inputWords);
-            } catch (NumberFormatException e) {
-                throw new InvalidCommandException(INVALID_NUMBER_MESSAGE);
-            }
+            TaskSelection selection = TaskSelection.parse(inputWords);
+            int[] taskNumbers = selection.resolve(taskList);
             switch (commandsEnum) {
             case DONE:
-                if (!taskList.markAsDone(taskNumber)) { // task already marked as done
+                List<Task> markedTasks = taskList.markAsDone(taskNumbers);
+                if (markedTasks.isEmpty() && selection.isSingle()) { // task already marked as done
                     throw new DukeException("You have already marked this task (%s) as done",
-                        taskList.getTask(taskNumber));
+                        taskList.getTask(taskNumbers[0]));
+                } else if (markedTasks.isEmpty()) {
+                    throw new DukeException("You have already marked these tasks as done");
                 }
-                return ui.markAsDoneMessage(taskList.getTask(taskNumber));
+                storage.recordDoneTasks(taskNumbers);
+                return selection.isSingle()
+                    ? ui.markAsDoneMessage(markedTasks.get(0))
+                    : ui.markTasksAsDoneMessage(markedTasks.size());
             case DELETE:
-                return ui.removeTaskMessage(taskList.removeTask(taskNumber), taskList.size());
+                List<Task> removedTasks = taskList.removeTasks(taskNumbers);
+                storage.recordRemovedTasks(taskNumbers);
+                return selection.isSingle()
+                    ? ui.removeTaskMessage(removedTasks.get(0), taskList.size())
+                    : ui.removeTasksMessage(removedTasks.size(), taskList.size());
             default:
                 throw new InvalidCommandException(INVALID_COMMAND);
             }
@@ -129,14 +356,56 @@ public class CommandParser {
     }
 
     /**
-     * Gets the output after parsing the command.
+     * Gets the output after parsing the command. This must be called before the task list is changed again.
      *
      * @return the output string
      */
     public String getOutput() {
+        if (output == null) {
+            StringBuilder result = new StringBuilder();
+            try {
+                writeListedTasks(result);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // Not thrown by a StringBuilder
+            }
+            output = result.toString();
+        }
         return output;
     }
 
+    /**
+     * Writes the output after parsing the command. Unlike {@link #getOutput()}, the output of the commands
+     * listing tasks is written one task at a time, without building it in memory first.
+     * This must be called before the task list is changed again.
+     *
+     * @param out where the output is written to
+     * @throws IOException when the output cannot be written.
+     */
+    public void writeOutput(Appendable out) throws IOException {
+        if (output == null) {
+            writeListedTasks(out);
+        } else {
+            out.append(output);
+        }
+    }
+
+    /**
+     * Writes the output of a command that lists tasks, recording how long it took apart from the command itself.
+     */
+    private void writeListedTasks(Appendable out) throws IOException {
+        long start = Metrics.startTimer();
+        try {
+            outputWriter.writeTo(out);
+            if (moreResultsMessage != null) {
+                out.append("\n").append(moreResultsMessage);
+            }
+        } finally {
+            if (Metrics.isTimed(start)) { // Avoids building the name while metrics are off
+                Metrics.recordCommand(commandName + OUTPUT_SUFFIX, start);
+            }
+        }
+    }
+
     /**
      * Checks if the command given by the user is to exit.
      *
@@ -146,4 +415,10 @@ public class CommandParser {
         return isExiting;
     }
 
+    /**
+     * Writes the output of a command that lists tasks.
+     */
+    private interface OutputWriter {
+        void writeTo(Appendable out) throws IOException;
+    }
 }
@@ -1,64 +1,110 @@
 package duke.logic;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
- * The enums of the commands available. Also contains the help messages of each command.
+ * The enums of the commands available. Also contains the help messages of each command,
+ * whether the command can change the task list, and whether it needs arguments.
+ *
+ * <p>The commands are looked up by their verb in a table built once, see {@link #fromVerb(String)},
+ * so that an unknown verb is not found through an exception.</p>
  */
 public enum CommandsEnum {
-    BYE() {
+    BETWEEN(false, true) {
+        @Override
+        public String helpMessage() {
+            return "Usage: between <date and/or time> <date and/or time> [--page <page number>]\n"
+                + "Where date and time is in the format: D/M/YYYY hh:mm\n"
+                + "For example: between 1/1/2030 31/1/2030\n"
+                + "This will list every event that takes place in January 2030, in chronological order.\n"
+                + "             between 1/1/2030 9:00 1/1/2030 12:00\n"
+                + "This will list every event that takes place between 9am and 12pm on 1 January 2030.";
+        }
+    }, BYE(false, false) {
         @Override
         public String helpMessage() {
             return "Usage: bye\n"
                 + "This will quit the Duke chatbot.";
         }
-    }, DEADLINE() {
+    }, CONFLICTS(false, false) {
+        @Override
+        public String helpMessage() {
+            return "Usage: conflicts [<first>-<last> | --page <page number>]\n"
+                + "This will list every event that is not done and overlaps another such event,"
+                + " in chronological order.";
+        }
+    }, DEADLINE(true, true) {
         @Override
         public String helpMessage() {
-            return "Usage: deadline <task description> /by <date and/or time>"
+            return "Usage: deadline <task description> /by <date and/or time> [/every <how often>]\n"
                 + "Where date and time is in the format: D/M/YYYY hh:mm\n"
+                + "And how often is day, weekday, week, month, year or a day of the week such as monday.\n"
                 + "For example: deadline haircut /by 19:00\n"
                 + "This will add a deadline task \"haircut\" to the list,"
                 + " with today's date (or tomorrow if it is past 19:00) and the time 19:00.\n"
                 + "             deadline give $1 million to charity /by 31/12/2090 12:00\n"
                 + "This will add a deadline task \"give $1 million to charity\" to the list,"
-                + " with the date on 31 December 2090 on 12pm.";
+                + " with the date on 31 December 2090 on 12pm.\n"
+                + "             deadline pay rent /by 1/11/2090 12:00 /every month\n"
+                + "This will add a deadline task \"pay rent\" that is due on the first of every month at 12pm,"
+                + " from November 2090.";
         }
-    }, DELETE() {
+    }, DELETE(true, true) {
         @Override
         public String helpMessage() {
-            return "Usage: delete <task number>\n"
+            return "Usage: delete <task numbers> | --done\n"
+                + "Where task numbers are numbers or ranges separated by commas.\n"
                 + "For example: delete 1\n"
-                + "This will delete the first task in the list.";
+                + "This will delete the first task in the list.\n"
+                + "             delete 3,7,9-20\n"
+                + "This will delete the 3rd, the 7th and the 9th to 20th tasks, numbered as they were before.\n"
+                + "             delete --done\n"
+                + "This will delete every task that is done.";
         }
 
-    }, DONE() {
+    }, DONE(true, true) {
         @Override
         public String helpMessage() {
-            return "Usage: done <task number>\n"
+            return "Usage: done <task numbers>\n"
+                + "Where task numbers are numbers or ranges separated by commas.\n"
                 + "For example: done 1\n"
-                + "This will mark the first task as done.";
+                + "This will mark the first task as done.\n"
+                + "             done 1-500\n"
+                + "This will mark the first 500 tasks as done.";
         }
 
-    }, EVENT() {
+    }, EVENT(true, true) {
         @Override
         public String helpMessage() {
-            return "Usage: event <task description> /from <date and/or time> [/to <date and/or time>]\n"
+            return "Usage: event <task description> /from <date and/or time> [/to <date and/or time>]"
+                + " [/every <how often>]\n"
                 + "Where date and time is in the format: D/M/YYYY hh:mm\n"
+                + "And how often is day, weekday, week, month, year or a day of the week such as monday.\n"
                 + "For example: event Shopee 21.7 sale /from 21/7/2021 00:00 /to 23:59\n"
                 + "This will add an event task \"Shopee 21.7 sale\" to the list,"
                 + " with the duration on 21 July 2021 00:00 to 21 July 2021 23:59 by default.\n"
                 + "             event first date /from 31/12/2090 12:00\n"
                 + "This will add an event task \"first date\" to the list,"
-                + " with the date on 31 December 2090 on 12pm to 31 December 2090 12pm.";
+                + " with the date on 31 December 2090 on 12pm to 31 December 2090 12pm.\n"
+                + "             event standup /from 9:00 /to 9:15 /every weekday\n"
+                + "This will add an event task \"standup\" from 9am to 9:15am on every weekday from the next one."
+                + " It is saved once, and each day only shows up in upcoming, between and conflicts.";
         }
 
-    }, FIND() {
+    }, FIND(false, true) {
         @Override
         public String helpMessage() {
-            return "Usage: find <item>\n"
+            return "Usage: find <item> [<more items>] [--page <page number>]\n"
                 + "For example: find book\n"
-                + "This will list every task that contains \"book\".";
+                + "This will list every task that contains \"book\".\n"
+                + "             find book shop\n"
+                + "This will list every task that contains both \"book\" and \"shop\".\n"
+                + "             find book --page 2\n"
+                + "This will list the 101st to 200th tasks that contain \"book\".";
         }
-    }, HELP() {
+    }, HELP(false, false) {
         @Override
         public String helpMessage() {
             return "Hello! Duke is a chatbot for all your task management needs.\n"
@@ -69,27 +115,99 @@ public enum CommandsEnum {
         }
 
 
-    }, LIST() {
+    }, LIST(false, false) {
         @Override
         public String helpMessage() {
-            return "Usage: list\n"
-                + "This will display the list of tasks.";
+            return "Usage: list [<first>-<last> | --page <page number>]\n"
+                + "This will display the list of tasks.\n"
+                + "For example: list 200-400\n"
+                + "This will display the tasks numbered 200 to 400.\n"
+                + "             list --page 3\n"
+                + "This will display the third page of 100 tasks.\n"
+                + "In the window, only a page of tasks is displayed unless more are asked for.";
         }
-    }, TODO() {
+    }, STATS(false, false) {
+        @Override
+        public String helpMessage() {
+            return "Usage: stats [on | off | reset]\n"
+                + "This will show how many tasks there are of each type, how long loading the data file took,"
+                + " and how long each command and each save took.\n"
+                + "The durations are only recorded after \"stats on\", or if duke was started with"
+                + " -Dduke.metrics=true. They can also be read over JMX.\n"
+                + "\"stats reset\" clears the durations recorded so far.";
+        }
+    }, TODO(true, true) {
         @Override
         public String helpMessage() {
             return "Usage: todo <task description>\n"
                 + "For example: todo Quit smoking\n"
                 + "This will add a todo task \"Quit smoking\" to the list.";
         }
-    }, UPCOMING() {
+    }, UPCOMING(false, false) {
         @Override
         public String helpMessage() {
-            return "Usage: upcoming\n"
-                + "This will display all the upcoming tasks, in chronological order.";
+            return "Usage: upcoming [<first>-<last> | --page <page number>]\n"
+                + "This will display all the upcoming tasks, in chronological order.\n"
+                + "For example: upcoming --page 2\n"
+                + "This will display the 101st to 200th upcoming tasks.";
         }
     };
 
+    private static final Map<String, CommandsEnum> COMMANDS_BY_VERB = new HashMap<>();
+    private final boolean isMutating;
+    private final boolean isArgumentRequired;
+    private final String verb;
+
+    static {
+        for (CommandsEnum command : values()) {
+            COMMANDS_BY_VERB.put(command.verb, command);
+        }
+    }
+
+    CommandsEnum(boolean isMutating, boolean isArgumentRequired) {
+        this.isMutating = isMutating;
+        this.isArgumentRequired = isArgumentRequired;
+        verb = name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the word that the user types for the command.
+     *
+     * @return the name of the command in lower case
+     */
+    public String getVerb() {
+        return verb;
+    }
+
+    /**
+     * Finds the command with the verb typed by the user, ignoring case.
+     *
+     * @param verb the first word of the input
+     * @return the command, or null if there is no such command
+     */
+    public static CommandsEnum fromVerb(String verb) {
+        CommandsEnum command = COMMANDS_BY_VERB.get(verb); // Verbs are usually typed in lower case
+        return command != null ? command : COMMANDS_BY_VERB.get(verb.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Checks if the command must be followed by arguments, such as the description of a task to be added.
+     *
+     * @return true if the command cannot be given without arguments
+     */
+    public boolean isArgumentRequired() {
+        return isArgumentRequired;
+    }
+
+    /**
+     * Checks if the command can change the task list, and hence needs the changes to be saved.
+     *
+     * @return true if the command may add, remove or update tasks
+     */
+    public boolean isMutating() {
+        return isMutating;
+    }
+
     /**
      * Gets the help message of the specific command.
      *
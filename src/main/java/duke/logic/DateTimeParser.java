@@ -3,17 +3,27 @@ package duke.logic;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.Arrays;
 
 import duke.exception.DukeException;
 
 
 /**
  * Enables simpler parsing of date and time for events and deadlines.
+ *
+ * <p>Dates and times in the usual formats are parsed by hand, since this is done for every line of the data file.
+ * Anything else (including invalid input) is left to the shared {@link DateTimeFormatter}s,
+ * so the results and errors are the same as parsing with the formatters alone.</p>
  */
 public class DateTimeParser {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("d/M/yyyy");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("H:m");
+    private static final DateTimeFormatter DATA_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59);
+    private static final int DATA_STRING_LENGTH = 16; // yyyy-MM-dd HH:mm
     private final LocalTime time;
     private final LocalDate date;
 
@@ -34,21 +44,21 @@ public class DateTimeParser {
      * @param relativeStartTime the relative starting time of the task (by default now)
      */
     public DateTimeParser(String dateTime, LocalDate relativeStartDate, LocalTime relativeStartTime) {
-        String[] dateAndTime = Arrays.stream(dateTime.split("[ |,]", 2))
-            .map(String::trim).toArray(String[]::new);
+        int separator = indexOfSeparator(dateTime);
         try {
-            if (dateAndTime.length == 1) {
-                if (dateAndTime[0].contains("/")) { // User entered date
-                    time = LocalTime.parse("23:59");
+            if (separator < 0) {
+                String dateOrTime = dateTime.trim();
+                if (dateOrTime.contains("/")) { // User entered date
+                    time = END_OF_DAY;
                 } else { // User likely entered time
-                    time = parseTime(dateAndTime[0]);
+                    time = parseTime(dateOrTime);
                     date = time.isAfter(relativeStartTime) ? relativeStartDate : relativeStartDate.plusDays(1);
                     return;
                 }
             } else {
-                time = parseTime(dateAndTime[1]);
+                time = parseTime(dateTime.substring(separator + 1).trim());
             }
-            date = parseDate(dateAndTime[0]);
+            date = parseDate((separator < 0 ? dateTime : dateTime.substring(0, separator)).trim());
 
         } catch (DateTimeParseException e) {
             throw new DukeException("Invalid date and time format. Please enter them in the format: d/M/YYYY H:m.\n"
@@ -56,6 +66,19 @@ public class DateTimeParser {
         }
     }
 
+    /**
+     * Finds the first character that separates the date from the time, which is a space, a comma or a bar.
+     */
+    private static int indexOfSeparator(String dateTime) {
+        for (int i = 0; i < dateTime.length(); i++) {
+            char c = dateTime.charAt(i);
+            if (c == ' ' || c == ',' || c == '|') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Returns the LocalDateTime object associated with the date and time represented in the data string.
      *
@@ -63,15 +86,77 @@ public class DateTimeParser {
      * @return the LocalDateTime object
      */
     public static LocalDateTime getDateTimeFromDataString(String data) {
-        return LocalDateTime.parse(data, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+        if (data.length() == DATA_STRING_LENGTH && data.charAt(4) == '-' && data.charAt(7) == '-'
+            && data.charAt(10) == ' ' && data.charAt(13) == ':') {
+            int year = parseDigits(data, 0, 4);
+            int month = parseDigits(data, 5, 7);
+            int day = parseDigits(data, 8, 10);
+            int hour = parseDigits(data, 11, 13);
+            int minute = parseDigits(data, 14, 16);
+            if (isValidDate(year, month, day) && isValidTime(hour, minute)) {
+                return LocalDateTime.of(year, month, day, hour, minute);
+            }
+        }
+        return LocalDateTime.parse(data, DATA_FORMATTER);
+    }
+
+    private static LocalDate parseDate(String date) {
+        int firstSlash = date.indexOf('/');
+        int secondSlash = date.indexOf('/', firstSlash + 1);
+        if (firstSlash > 0 && secondSlash > 0 && firstSlash <= 2 && secondSlash - firstSlash - 1 <= 2
+            && date.length() - secondSlash - 1 == 4) {
+            int day = parseDigits(date, 0, firstSlash);
+            int month = parseDigits(date, firstSlash + 1, secondSlash);
+            int year = parseDigits(date, secondSlash + 1, date.length());
+            if (isValidDate(year, month, day)) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(date, DATE_FORMATTER);
+    }
+
+    private static LocalTime parseTime(String time) {
+        int colon = time.indexOf(':');
+        if (colon > 0 && colon <= 2 && time.length() - colon - 1 <= 2) {
+            int hour = parseDigits(time, 0, colon);
+            int minute = parseDigits(time, colon + 1, time.length());
+            if (isValidTime(hour, minute)) {
+                return LocalTime.of(hour, minute);
+            }
+        }
+        return LocalTime.parse(time, TIME_FORMATTER);
     }
 
-    private LocalDate parseDate(String date) {
-        return LocalDate.parse(date, DateTimeFormatter.ofPattern("d/M/yyyy"));
+    /**
+     * Parses the decimal digits from start (inclusive) to end (exclusive).
+     *
+     * @return the value of the digits, or -1 if there are no digits or a character is not a digit
+     */
+    private static int parseDigits(String text, int start, int end) {
+        if (start >= end) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Checks the date, leaving years outside 1000 to 9999 and days past the end of the month to the formatters.
+     */
+    private static boolean isValidDate(int year, int month, int day) {
+        return year >= 1000 && month >= 1 && month <= 12 && day >= 1
+            && day <= Month.of(month).length(Year.isLeap(year));
     }
 
-    private LocalTime parseTime(String time) {
-        return LocalTime.parse(time, DateTimeFormatter.ofPattern("H:m"));
+    private static boolean isValidTime(int hour, int minute) {
+        return hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59;
     }
 
     /**
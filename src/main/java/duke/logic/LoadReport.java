@@ -0,0 +1,45 @@
+package duke.logic;
+
+import java.io.File;
+
+/**
+ * The outcome of loading a data file: how many tasks were loaded, how many lines could not be read
+ * and were moved to the quarantine file instead, and how long the load took.
+ */
+public class LoadReport {
+    private final int loadedCount;
+    private final int quarantinedCount;
+    private final File quarantineFile;
+    private final long durationNanos;
+
+    LoadReport(int loadedCount, int quarantinedCount, File quarantineFile, long durationNanos) {
+        this.loadedCount = loadedCount;
+        this.quarantinedCount = quarantinedCount;
+        this.quarantineFile = quarantineFile;
+        this.durationNanos = durationNanos;
+    }
+
+    public int getLoadedCount() {
+        return loadedCount;
+    }
+
+    public int getQuarantinedCount() {
+        return quarantinedCount;
+    }
+
+    public File getQuarantineFile() {
+        return quarantineFile;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        String loaded = String.format("Loaded %d tasks in %d ms.", loadedCount, durationNanos / 1_000_000);
+        return quarantinedCount == 0 ? loaded
+            : String.format("%s %d line(s) could not be read, and were moved to %s", loaded, quarantinedCount,
+                quarantineFile.getAbsolutePath());
+    }
+}
@@ -0,0 +1,100 @@
+package duke.logic;
+
+import java.util.List;
+
+import duke.exception.InvalidCommandException;
+
+/**
+ * A range of the results of a command that lists tasks, such as {@code list 200-400} or {@code list --page 3}.
+ */
+public class Page {
+    public static final int PAGE_SIZE = 100;
+    public static final String PAGE_OPTION = "--page";
+    public static final Page ALL = new Page(1, Integer.MAX_VALUE);
+    private static final String INVALID_PAGE_MESSAGE = "Please give a range of results like 200-400, "
+        + "or a page number like --page 3.";
+    private final int first;
+    private final int last;
+
+    private Page(int first, int last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * Parses the range of results, which is either {@code <first>-<last>} (both inclusive, counting from 1)
+     * or {@code --page <page number>} for pages of {@value #PAGE_SIZE} results.
+     *
+     * @param range the range given by the user, or null for all the results
+     * @return the page of results
+     * @throws InvalidCommandException when the range is not valid.
+     */
+    public static Page parse(String range) {
+        if (range == null || range.isBlank()) {
+            return ALL;
+        }
+        String trimmed = range.trim();
+        try {
+            if (trimmed.startsWith(PAGE_OPTION)) {
+                int pageNumber = Integer.parseInt(trimmed.substring(PAGE_OPTION.length()).trim());
+                if (pageNumber >= 1) {
+                    long first = (long) (pageNumber - 1) * PAGE_SIZE + 1;
+                    return new Page((int) Math.min(first, Integer.MAX_VALUE),
+                        (int) Math.min(first + PAGE_SIZE - 1, Integer.MAX_VALUE));
+                }
+            } else {
+                int dash = trimmed.indexOf('-');
+                int first = Integer.parseInt(trimmed.substring(0, dash).trim());
+                int last = Integer.parseInt(trimmed.substring(dash + 1).trim());
+                if (first >= 1 && last >= first) {
+                    return new Page(first, last);
+                }
+            }
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            throw new InvalidCommandException(INVALID_PAGE_MESSAGE);
+        }
+        throw new InvalidCommandException(INVALID_PAGE_MESSAGE);
+    }
+
+    /**
+     * Gets the results on this page.
+     *
+     * @param results all the results, in order
+     * @return a view of the results on this page, which may be empty if there are not as many results
+     */
+    public <T> List<T> of(List<T> results) {
+        int from = Math.min(first - 1, results.size());
+        int to = Math.min(last, results.size());
+        return from == 0 && to == results.size() ? results : results.subList(from, to);
+    }
+
+    /**
+     * Gets the page with only the first results of this page, such as for a window that cannot show many at once.
+     *
+     * @param maxCount the most results on the page
+     * @return this page if it has no more results than that, or else a shorter page starting at the same position
+     */
+    public Page limit(int maxCount) {
+        long limitedLast = (long) first + maxCount - 1;
+        return limitedLast >= last ? this : new Page(first, (int) limitedLast);
+    }
+
+    /**
+     * Counts the results on this page.
+     *
+     * @param resultCount the number of all the results
+     * @return the number of results on this page
+     */
+    public int count(int resultCount) {
+        return Math.max(0, Math.min(last, resultCount) - (first - 1));
+    }
+
+    /**
+     * Gets the position of the first result on this page.
+     *
+     * @return the position, counting from 1
+     */
+    public int getFirst() {
+        return first;
+    }
+}
@@ -0,0 +1,76 @@
+package duke.logic;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import duke.exception.DukeException;
+
+/**
+ * Keeps the lines of a data file that could not be read in a sidecar file next to it, instead of stopping the load.
+ *
+ * <p>Each line is appended as it is, after a comment line with its line number and why it could not be read,
+ * so that it can be fixed and added back by hand. The sidecar file is only created once there is a bad line.</p>
+ */
+class Quarantine implements Closeable {
+    static final String FILE_SUFFIX = ".quarantine";
+    private final File dataFile;
+    private final File file;
+    private final String loadTime = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).toString();
+    private Writer writer; // Null until the first bad line
+    private int count;
+
+    Quarantine(File dataFile) {
+        this.dataFile = dataFile;
+        file = new File(dataFile.getPath() + FILE_SUFFIX);
+    }
+
+    /**
+     * Appends a line that could not be read to the sidecar file.
+     *
+     * @param lineNumber the number of the line in the data file, from 1
+     * @param line       the line as it is in the data file
+     * @param failure    the reason that the line could not be read
+     * @throws IOException when the sidecar file cannot be written
+     */
+    void add(long lineNumber, String line, RuntimeException failure) throws IOException {
+        if (writer == null) {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true),
+                StandardCharsets.UTF_8));
+        }
+        writer.append("# ").append(loadTime).append(" line ").append(Long.toString(lineNumber)).append(" of ")
+            .append(dataFile.getName()).append(": ").append(describe(failure)).append('\n')
+            .append(line).append('\n');
+        count++;
+    }
+
+    private static String describe(RuntimeException failure) {
+        if (failure instanceof DukeException) {
+            return failure.getMessage();
+        }
+        String name = failure.getClass().getSimpleName();
+        return failure.getMessage() == null ? name : name + ": " + failure.getMessage();
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
@@ -1,15 +1,31 @@
 package duke.logic;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 
 import duke.exception.DukeException;
+import duke.metrics.Metrics;
 import duke.task.Deadline;
 import duke.task.Event;
+import duke.task.Recurrence;
+import duke.task.RecurringDeadline;
+import duke.task.RecurringEvent;
 import duke.task.Task;
 import duke.task.TaskList;
 import duke.task.Todo;
@@ -17,68 +33,217 @@ import duke.task.Todo;
 /**
  * Deals with the logic of loading data from a file and writing to the
  * file each time there is an update to the task list.
+ *
+ * <p>Changes are appended as single records to a journal file next to the data file,
+ * so that each command costs a constant amount of I/O. Once the journal grows larger
+ * than the task list, it is compacted into a fresh snapshot of the data file.</p>
+ *
+ * <p>The data file is either a text file with one {@link Task#getDataLine()} per line, or a
+ * {@link BinarySnapshot} if the file already is one or its name ends with {@value BinarySnapshot#FILE_EXTENSION}.</p>
+ *
+ * <p>Lines of a text data file that cannot be read are moved to a {@link Quarantine} file next to it,
+ * and the data file is then rewritten without them, see {@link #getLoadReport()}.</p>
+ *
+ * <p>By default the changes are written by the thread that flushes them. See {@link #enableWriteBehind(long)}
+ * for writing them on a background thread instead.</p>
  */
-public class Storage {
+public class Storage implements Closeable {
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String JOURNAL_HEADER = "# ";
+    private static final String ADD_RECORD = "A";
+    private static final String DONE_RECORD = "X";
+    private static final String REMOVE_RECORD = "R";
+    private static final int MIN_RECORDS_BEFORE_COMPACTION = 64;
     private final TaskList taskList;
     private final File textFile;
+    private final File journalFile;
+    private final List<String> pendingRecords;
+    private final boolean isBinary;
+    private BinarySnapshot mappedSnapshot; // The loaded tasks are decoded from it until the data file is rewritten
+    private long snapshotChecksum;
+    private int journalRecordCount; // -1 when the journal does not belong to the current data file
+    private int flushInterval = 1;
+    private int unflushedCommandCount;
+    private ScheduledThreadPoolExecutor writer; // Null unless writing behind
+    private long maxStalenessMillis;
+    private QueuedChanges queuedChanges; // Guarded by the writer
+    private volatile IOException writeFailure;
+    private volatile boolean isSnapshotNeeded; // Set once a change is lost, until the next snapshot is written
+    private final LoadReport loadReport;
 
     /**
      * Creates a new instance of a storage object that deals with saving the task list in Duke.
      *
      * @param filePath The string representing the path of the file that the data will be saved into.
      * @param taskList The list of task that will be saved into the file.
+     * @throws IOException when the data file cannot be loaded, or a line that cannot be read cannot be quarantined.
+     *     The journal is then left as it is, rather than being replaced by one that does not match the data file.
      */
     public Storage(String filePath, TaskList taskList) throws IOException {
         this.taskList = taskList;
         textFile = new File(filePath);
+        journalFile = new File(filePath + JOURNAL_SUFFIX);
+        pendingRecords = new ArrayList<>();
         if (!textFile.exists()) {
             textFile.createNewFile();
         }
         if (!textFile.canWrite() || !textFile.canRead()) {
             throw new IOException("This file cannot be written or read by duke!");
         }
+        isBinary = filePath.endsWith(BinarySnapshot.FILE_EXTENSION) || BinarySnapshot.isBinarySnapshot(textFile);
+        long loadStart = System.nanoTime();
         // Attempts to load file (even an empty one!)
-        loadFileIntoTaskList(taskList, textFile);
+        try (Quarantine quarantine = new Quarantine(textFile)) {
+            snapshotChecksum = loadFileIntoTaskList(taskList, textFile, isBinary, quarantine);
+            replayJournal();
+            loadReport = new LoadReport(taskList.size(), quarantine.getCount(), quarantine.getFile(),
+                System.nanoTime() - loadStart);
+        }
+        Metrics.recordLoad(loadReport.getDurationNanos(), loadReport.getLoadedCount());
+        if (loadReport.getQuarantinedCount() > 0) {
+            updateDukeTextFile(); // The lines that cannot be read are only kept in the quarantine file
+        }
+        taskList.markAsSaved();
     }
 
     /**
      * Loads the data file into the task list of duke.
      *
-     * @param list the task list in duke
+     * @param list       the task list in duke
+     * @param isBinary   whether the data file is a binary snapshot
+     * @param quarantine where the lines of a text data file that cannot be read are moved to
+     * @return the checksum of the data file, used to match the journal against this snapshot
+     * @throws IOException when the data file cannot be read
      */
-    private static void loadFileIntoTaskList(TaskList list, File textFile) {
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader(textFile));
-            for (String lineOfData = reader.readLine(); lineOfData != null; lineOfData = reader.readLine()) {
-                list.addTask(parseStringIntoTask(lineOfData));
+    private long loadFileIntoTaskList(TaskList list, File textFile, boolean isBinary, Quarantine quarantine)
+        throws IOException {
+        if (!isBinary) {
+            return readTextSnapshot(list, textFile, quarantine);
+        } else if (textFile.length() > 0) {
+            mappedSnapshot = BinarySnapshot.open(textFile);
+            list.addTasksLazily(mappedSnapshot.size(), mappedSnapshot::decode, mappedSnapshot::getTaskClass);
+            return mappedSnapshot.getChecksum();
+        }
+        return 0;
+    }
+
+    /**
+     * Reads a data file in the text format into the task list. Large files are parsed in parallel,
+     * see {@link TextSnapshotLoader}.
+     *
+     * @param list       the task list to be added to
+     * @param textFile   the data file with one task per line
+     * @param quarantine where the lines that cannot be read are moved to
+     * @return the CRC32 checksum of the data file
+     * @throws IOException when the data file cannot be read
+     */
+    static long readTextSnapshot(TaskList list, File textFile, Quarantine quarantine) throws IOException {
+        return new TextSnapshotLoader().load(list, textFile, quarantine);
+    }
+
+    /**
+     * Gets how the data file was loaded: the number of tasks, the lines that could not be read, and the time taken.
+     *
+     * @return the report of the load
+     */
+    public LoadReport getLoadReport() {
+        return loadReport;
+    }
+
+    /**
+     * Writes the tasks into a data file in the text format.
+     *
+     * @param tasks    the tasks to be written, in order
+     * @param textFile the file to be written to
+     * @return the CRC32 checksum of the data file
+     * @throws IOException when the data file cannot be written
+     */
+    static long writeTextSnapshot(List<Task> tasks, File textFile) throws IOException {
+        CRC32 crc = new CRC32();
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+            new CheckedOutputStream(new FileOutputStream(textFile), crc), StandardCharsets.UTF_8))) {
+            for (Task task : tasks) {
+                writer.append(task.getDataLine()).append("\n");
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Replays the records in the journal that were written after the snapshot was taken.
+     * A journal that belongs to an older snapshot (e.g. the program stopped right after compacting)
+     * is ignored, since its changes are already part of the data file.
+     *
+     * @throws IOException when the journal has a bad record and the data file cannot be rewritten without it.
+     */
+    private void replayJournal() throws IOException {
+        journalRecordCount = -1;
+        if (!journalFile.exists()) {
+            return;
+        }
+        String content = Files.readString(journalFile.toPath(), StandardCharsets.UTF_8);
+        // A record that was cut short by a crash has no line break, and is dropped.
+        String[] records = content.substring(0, content.lastIndexOf('\n') + 1).split("\n");
+        if (!records[0].equals(JOURNAL_HEADER + Long.toHexString(snapshotChecksum))) {
+            return;
+        }
+        for (journalRecordCount = 0; journalRecordCount + 1 < records.length; journalRecordCount++) {
+            try {
+                applyRecord(taskList, records[journalRecordCount + 1]);
+            } catch (DukeException | IndexOutOfBoundsException | NumberFormatException e) {
+                System.out.printf("Stopped reading the journal %s at record %d: %s\n",
+                    journalFile.getAbsolutePath(), journalRecordCount + 1, e.getMessage());
+                updateDukeTextFile(); // Keeps the records before the bad one
+                return;
             }
-        } catch (IOException e) {
-            System.out.printf("However an error occurred while writing to %s:\n", textFile.getAbsolutePath());
-            e.printStackTrace();
         }
     }
 
-    private static Task parseStringIntoTask(String line) {
+    private static void applyRecord(TaskList list, String record) {
+        String[] recordTypeAndData = record.split(" \\| ", 2);
+        switch (recordTypeAndData[0]) {
+        case ADD_RECORD:
+            list.addTask(parseStringIntoTask(recordTypeAndData[1]));
+            break;
+        case DONE_RECORD:
+            list.markAsDone(TaskSelection.parse(recordTypeAndData[1]).resolve(list));
+            break;
+        case REMOVE_RECORD:
+            list.removeTasks(TaskSelection.parse(recordTypeAndData[1]).resolve(list));
+            break;
+        default:
+            throw new DukeException("Unknown journal record: %s", record);
+        }
+    }
+
+    static Task parseStringIntoTask(String line) {
         String corruptFileMsg = "Storage file is corrupted. Please fix it or delete the file.";
         char taskType = line.charAt(0); //'T' or 'D' or 'E'
         boolean isDone = Integer.parseInt(line.substring(4, 5)) == 1; // 1 if isDone, 0 otherwise
-        String[] descriptionAndDatetime = line.substring(8).split(" \\| ", 3);
+        String[] descriptionAndDatetime = line.substring(8).split(" \\| ", 4);
         Task task;
         if (taskType == 'T') {
             task = new Todo(descriptionAndDatetime[0]);
         } else if (taskType == 'D') {
-            if (descriptionAndDatetime.length != 2) {
+            if (descriptionAndDatetime.length != 2 && descriptionAndDatetime.length != 3) { // may recur
                 throw new DukeException(corruptFileMsg);
             }
-            task = new Deadline(descriptionAndDatetime[0],
-                DateTimeParser.getDateTimeFromDataString(descriptionAndDatetime[1]));
+            LocalDateTime dateTime = DateTimeParser.getDateTimeFromDataString(descriptionAndDatetime[1]);
+            task = descriptionAndDatetime.length == 2
+                ? new Deadline(descriptionAndDatetime[0], dateTime)
+                : new RecurringDeadline(descriptionAndDatetime[0], dateTime,
+                    parseRecurrence(descriptionAndDatetime[2], corruptFileMsg));
         } else if (taskType == 'E') {
-            if (descriptionAndDatetime.length != 3) { // includes start and end
+            if (descriptionAndDatetime.length != 3 && descriptionAndDatetime.length != 4) { // may recur
                 throw new DukeException(corruptFileMsg);
             }
-            task = new Event(descriptionAndDatetime[0],
-                DateTimeParser.getDateTimeFromDataString(descriptionAndDatetime[1]),
-                DateTimeParser.getDateTimeFromDataString(descriptionAndDatetime[2]));
+            LocalDateTime start = DateTimeParser.getDateTimeFromDataString(descriptionAndDatetime[1]);
+            LocalDateTime end = DateTimeParser.getDateTimeFromDataString(descriptionAndDatetime[2]);
+            task = descriptionAndDatetime.length == 3
+                ? new Event(descriptionAndDatetime[0], start, end)
+                : new RecurringEvent(descriptionAndDatetime[0], start, end,
+                    parseRecurrence(descriptionAndDatetime[3], corruptFileMsg));
         } else {
             throw new DukeException(corruptFileMsg);
         }
@@ -88,20 +253,324 @@ public class Storage {
         return task;
     }
 
+    private static Recurrence parseRecurrence(String field, String corruptFileMsg) {
+        if (!field.startsWith(Recurrence.PREFIX)) {
+            throw new DukeException(corruptFileMsg);
+        }
+        return Recurrence.parse(field.substring(Recurrence.PREFIX.length()));
+    }
+
+    /**
+     * Records that the task has been added to the end of the task list.
+     * The record is only written to the journal on the next {@link #flush()}.
+     *
+     * @param task the task that was added
+     */
+    public void recordAddedTask(Task task) {
+        pendingRecords.add(ADD_RECORD + " | " + task.getDataLine());
+    }
+
+    /**
+     * Records that the task with the given task number has been marked as done.
+     *
+     * @param taskNumber the task number that the user sees
+     */
+    public void recordDoneTask(int taskNumber) {
+        pendingRecords.add(DONE_RECORD + " | " + taskNumber);
+    }
+
+    /**
+     * Records that the task with the given task number has been removed.
+     *
+     * @param taskNumber the task number that the user sees
+     */
+    public void recordRemovedTask(int taskNumber) {
+        pendingRecords.add(REMOVE_RECORD + " | " + taskNumber);
+    }
+
+    /**
+     * Records that the tasks with the given task numbers have been marked as done all at once.
+     * The task numbers are written as ranges in a single record, such as {@code 1-500}.
+     *
+     * @param taskNumbers the task numbers that the user sees, in increasing order
+     */
+    public void recordDoneTasks(int[] taskNumbers) {
+        pendingRecords.add(DONE_RECORD + " | " + TaskSelection.format(taskNumbers));
+    }
+
+    /**
+     * Records that the tasks with the given task numbers have been removed all at once,
+     * such that the task numbers are those before any of them was removed.
+     * The task numbers are written as ranges in a single record, such as {@code 3,7,9-20}.
+     *
+     * @param taskNumbers the task numbers that the user sees, in increasing order
+     */
+    public void recordRemovedTasks(int[] taskNumbers) {
+        pendingRecords.add(REMOVE_RECORD + " | " + TaskSelection.format(taskNumbers));
+    }
+
     /**
-     * Updates the text file with the latest task list.
+     * Sets the number of commands after which the recorded changes are flushed, see {@link #completeCommand()}.
+     * Flushing less often speeds up running many commands at once, such as in a batch,
+     * but the changes since the last flush are lost if the program stops before the next one.
      *
-     * <p>Currently the text file is overwritten each time it updates.
-     * A more efficient method should be implemented.</p>
+     * @param flushInterval the number of commands between flushes, or 0 to only flush when asked to
+     */
+    public void setFlushInterval(int flushInterval) {
+        if (flushInterval < 0) {
+            throw new IllegalArgumentException("Flush interval cannot be negative: " + flushInterval);
+        }
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Marks the end of a command that changed the task list, and flushes the recorded changes
+     * once the number of commands set by {@link #setFlushInterval(int)} have been completed since the last flush.
+     *
+     * @throws IOException when the changes cannot be written.
+     */
+    public void completeCommand() throws IOException {
+        unflushedCommandCount++;
+        if (flushInterval > 0 && unflushedCommandCount >= flushInterval) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the changes in the background from now on, so that commands no longer wait for the disk.
+     * The changes of the commands flushed within the max staleness of each other are written together
+     * by a single writer thread. Use {@link #sync()} to wait until every change has been written.
+     *
+     * @param maxStalenessMillis the longest time in milliseconds that a flushed change may wait to be written
+     */
+    public void enableWriteBehind(long maxStalenessMillis) {
+        if (maxStalenessMillis < 0) {
+            throw new IllegalArgumentException("Max staleness cannot be negative: " + maxStalenessMillis);
+        }
+        if (writer == null) {
+            writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "duke-storage-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        }
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    /**
+     * Appends the recorded changes to the journal, compacting the journal into the data file
+     * once it has more records than there are tasks. Nothing is written if the task list is unchanged.
+     * With write-behind enabled, the changes are only handed to the writer thread.
+     *
+     * @throws IOException when the journal or the duke text file cannot be updated,
+     *     or a change could not be written in the background since the last flush.
+     */
+    public void flush() throws IOException {
+        unflushedCommandCount = 0;
+        throwWriteFailure();
+        if (isSnapshotNeeded) { // The journal no longer matches the task numbers of the task list
+            updateDukeTextFile();
+            return;
+        }
+        if (!taskList.isDirty() || pendingRecords.isEmpty()) {
+            return;
+        }
+        boolean isNewJournal = journalRecordCount < 0;
+        int recordCount = Math.max(journalRecordCount, 0) + pendingRecords.size();
+        if (recordCount > Math.max(MIN_RECORDS_BEFORE_COMPACTION, taskList.size())) {
+            updateDukeTextFile();
+            return;
+        }
+        if (writer == null) {
+            writeChangesOrRequestSnapshot(null, pendingRecords, isNewJournal);
+        } else {
+            queueChanges(null, pendingRecords, isNewJournal);
+        }
+        journalRecordCount = recordCount;
+        pendingRecords.clear();
+        taskList.markAsSaved();
+    }
+
+    /**
+     * Updates the data file with the latest task list and starts a new, empty journal.
+     *
+     * <p>The snapshot is written to a temporary file first and then moved over the data file,
+     * so the data file is never left half written. With write-behind enabled, the snapshot of the tasks
+     * is taken here, and written by the writer thread.</p>
+     *
+     * <p>This is also how the changes are saved again after some of them could not be written,
+     * since the records after a lost one would be applied to the wrong tasks.</p>
      *
      * @throws IOException when the duke text file cannot be updated.
      */
     public void updateDukeTextFile() throws IOException {
-        BufferedWriter writer = new BufferedWriter(new FileWriter(textFile));
-        writer.write(""); // Overwrites everything
-        for (Task task : taskList.getTasks()) {
-            writer.append(task.getDataLine()).append("\n");
+        if (writer == null) {
+            writeChangesOrRequestSnapshot(taskList.getTasks(), List.of(), false);
+            isSnapshotNeeded = false;
+        } else {
+            throwWriteFailure();
+            queueChanges(taskList.getTasks(), List.of(), false);
+        }
+        journalRecordCount = 0;
+        unflushedCommandCount = 0;
+        pendingRecords.clear();
+        taskList.markAsSaved();
+    }
+
+    /**
+     * Flushes the recorded changes and waits until they have been written, such as before exiting.
+     *
+     * @throws IOException when the changes cannot be written.
+     */
+    public void sync() throws IOException {
+        flush();
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.submit(this::writeQueuedChanges).get();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing the changes", e);
         }
-        writer.close();
+        throwWriteFailure();
+    }
+
+    /**
+     * Writes the changes that are still waiting, then stops the writer thread and unmaps the binary data file,
+     * such as when the task list is unloaded. The task list must not be used afterwards.
+     *
+     * @throws IOException when the changes cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            if (writer != null) {
+                writer.shutdown();
+            }
+            if (mappedSnapshot != null) {
+                mappedSnapshot.close();
+                mappedSnapshot = null;
+            }
+        }
+    }
+
+    private void throwWriteFailure() throws IOException {
+        IOException failure = writeFailure;
+        if (failure != null) {
+            writeFailure = null;
+            throw failure;
+        }
+    }
+
+    /**
+     * Queues the changes for the writer thread, merging them with the changes that are still waiting.
+     * A snapshot replaces the changes before it, since it already contains them.
+     */
+    private void queueChanges(List<Task> snapshot, List<String> records, boolean isNewJournal) {
+        synchronized (writer) {
+            if (queuedChanges == null) {
+                queuedChanges = new QueuedChanges();
+                writer.schedule(this::writeQueuedChanges, maxStalenessMillis, TimeUnit.MILLISECONDS);
+            }
+            if (snapshot != null) {
+                queuedChanges.snapshot = snapshot;
+                queuedChanges.records.clear();
+                isSnapshotNeeded = false;
+            }
+            queuedChanges.records.addAll(records);
+            queuedChanges.isNewJournal |= isNewJournal;
+        }
+    }
+
+    /**
+     * Writes the queued changes on the writer thread. A failure is kept to be thrown by the next flush,
+     * and the records queued after it are dropped, since the next flush writes a snapshot with them instead.
+     */
+    private void writeQueuedChanges() {
+        QueuedChanges changes;
+        synchronized (writer) {
+            changes = queuedChanges;
+            queuedChanges = null;
+            if (changes == null || changes.snapshot == null && isSnapshotNeeded) {
+                return; // Already written by an earlier sync, or to be part of the next snapshot
+            }
+        }
+        try {
+            writeChanges(changes.snapshot, changes.records, changes.isNewJournal);
+        } catch (IOException e) {
+            synchronized (writer) {
+                isSnapshotNeeded = true;
+                writeFailure = e;
+            }
+        }
+    }
+
+    /**
+     * Writes the changes on the calling thread. If they cannot be written, the next flush writes a snapshot.
+     */
+    private void writeChangesOrRequestSnapshot(List<Task> snapshot, List<String> records, boolean isNewJournal)
+        throws IOException {
+        try {
+            writeChanges(snapshot, records, isNewJournal);
+        } catch (IOException e) {
+            isSnapshotNeeded = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the snapshot of the tasks, if any, followed by the records in the journal.
+     * Only one thread writes at a time: the caller when writing synchronously, or else the writer thread.
+     */
+    private void writeChanges(List<Task> snapshot, List<String> records, boolean isNewJournal) throws IOException {
+        boolean isJournalReset = isNewJournal;
+        if (snapshot != null) {
+            if (mappedSnapshot != null) { // Taking the snapshot of the tasks decoded every one of them
+                mappedSnapshot.close();
+                mappedSnapshot = null;
+            }
+            long snapshotStart = Metrics.startTimer();
+            File tempFile = new File(textFile.getPath() + TEMP_SUFFIX);
+            long checksum = isBinary
+                ? BinarySnapshot.write(snapshot, tempFile)
+                : writeTextSnapshot(snapshot, tempFile);
+            Files.move(tempFile.toPath(), textFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshotChecksum = checksum;
+            isJournalReset = true;
+            Metrics.recordSnapshot(snapshotStart, textFile.length());
+        }
+        if (records.isEmpty() && !isJournalReset) {
+            return;
+        }
+        long flushStart = Metrics.startTimer();
+        long journalLength = Metrics.isTimed(flushStart) && !isJournalReset ? journalFile.length() : 0;
+        try (BufferedWriter journalWriter = new BufferedWriter(
+            new FileWriter(journalFile, StandardCharsets.UTF_8, !isJournalReset))) {
+            if (isJournalReset) {
+                journalWriter.append(JOURNAL_HEADER).append(Long.toHexString(snapshotChecksum)).append("\n");
+            }
+            for (String record : records) {
+                journalWriter.append(record).append("\n");
+            }
+        }
+        if (Metrics.isTimed(flushStart)) {
+            Metrics.recordFlush(flushStart, journalFile.length() - journalLength);
+        }
+    }
+
+    /**
+     * The changes waiting to be written by the writer thread.
+     */
+    private static class QueuedChanges {
+        private final List<String> records = new ArrayList<>();
+        private List<Task> snapshot;
+        private boolean isNewJournal;
     }
 }
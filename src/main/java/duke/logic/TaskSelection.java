@@ -0,0 +1,142 @@
+package duke.logic;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import duke.exception.DukeException;
+import duke.exception.InvalidCommandException;
+import duke.exception.InvalidTaskNumberException;
+import duke.task.Task;
+import duke.task.TaskList;
+
+/**
+ * The tasks that a command such as {@code done} or {@code delete} applies to: task numbers and ranges of them,
+ * such as {@code 3,7,9-20}, or every task matching an option, such as {@code --done}.
+ * The task numbers are those in the list before the command, so {@code delete 3,7} removes the third
+ * and the seventh task rather than the third and the eighth.
+ */
+public class TaskSelection {
+    public static final String DONE_OPTION = "--done";
+    private static final String INVALID_SELECTION_MESSAGE = "Please give task numbers like 3, ranges like 1-500, "
+        + "a list of them like 3,7,9-20, or " + DONE_OPTION + " for the tasks that are done.";
+    private final int[] ranges; // The first and last task number of each range, in order. Null for an option.
+    private final Predicate<Task> predicate; // Null unless the tasks are chosen by an option
+
+    private TaskSelection(int[] ranges, Predicate<Task> predicate) {
+        this.ranges = ranges;
+        this.predicate = predicate;
+    }
+
+    /**
+     * Parses the tasks chosen by the user.
+     *
+     * @param selection the task numbers and ranges separated by commas, or an option
+     * @return the selection
+     * @throws InvalidCommandException when the selection is not valid.
+     */
+    public static TaskSelection parse(String selection) {
+        String trimmed = selection.trim();
+        if (trimmed.equals(DONE_OPTION)) {
+            return new TaskSelection(null, Task::isDone);
+        }
+        String[] parts = trimmed.split(",", -1);
+        int[] ranges = new int[parts.length * 2];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                String part = parts[i].trim();
+                int dash = part.indexOf('-', 1); // Not the sign of a negative number
+                ranges[2 * i] = Integer.parseInt(dash < 0 ? part : part.substring(0, dash).trim());
+                ranges[2 * i + 1] = dash < 0 ? ranges[2 * i] : Integer.parseInt(part.substring(dash + 1).trim());
+                if (ranges[2 * i + 1] < ranges[2 * i]) {
+                    throw new InvalidCommandException(INVALID_SELECTION_MESSAGE);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidCommandException(INVALID_SELECTION_MESSAGE);
+        }
+        return new TaskSelection(ranges, null);
+    }
+
+    /**
+     * Checks if the selection is a single task number, such as {@code done 3}.
+     *
+     * @return true if only one task number was given
+     */
+    public boolean isSingle() {
+        return ranges != null && ranges.length == 2 && ranges[0] == ranges[1];
+    }
+
+    /**
+     * Gets the task numbers of the chosen tasks in the task list.
+     *
+     * @param taskList the list of tasks
+     * @return the task numbers in increasing order, without repeats
+     * @throws InvalidTaskNumberException when a task number is not in the list.
+     * @throws DukeException              when no task matches the option.
+     */
+    public int[] resolve(TaskList taskList) {
+        if (predicate != null) {
+            List<Task> tasks = taskList.getTasks();
+            int[] taskNumbers = new int[tasks.size()];
+            int count = 0;
+            for (int i = 0; i < tasks.size(); i++) {
+                if (predicate.test(tasks.get(i))) {
+                    taskNumbers[count++] = i + 1;
+                }
+            }
+            if (count == 0) {
+                throw new DukeException("There are no tasks that are done.");
+            }
+            return Arrays.copyOf(taskNumbers, count);
+        }
+        int size = taskList.size();
+        long[] sortedRanges = new long[ranges.length / 2]; // The first task number in the high bits
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] < 1 || ranges[i + 1] > size) {
+                throw new InvalidTaskNumberException(size);
+            }
+            sortedRanges[i / 2] = (long) ranges[i] << Integer.SIZE | ranges[i + 1];
+        }
+        Arrays.sort(sortedRanges);
+        int[] taskNumbers = new int[0];
+        int count = 0;
+        int next = 1; // The task numbers before this have been added
+        for (long range : sortedRanges) {
+            int first = Math.max((int) (range >>> Integer.SIZE), next);
+            int last = (int) range;
+            if (last - first + 1 > taskNumbers.length - count) {
+                taskNumbers = Arrays.copyOf(taskNumbers, Math.max(count + last - first + 1, 2 * count));
+            }
+            for (int taskNumber = first; taskNumber <= last; taskNumber++) {
+                taskNumbers[count++] = taskNumber;
+            }
+            next = Math.max(next, last + 1);
+        }
+        return count == taskNumbers.length ? taskNumbers : Arrays.copyOf(taskNumbers, count);
+    }
+
+    /**
+     * Writes the task numbers compactly as ranges, such as {@code 3,7,9-20}, which {@link #parse(String)} reads back.
+     *
+     * @param taskNumbers the task numbers in increasing order, without repeats
+     * @return the ranges separated by commas
+     */
+    public static String format(int[] taskNumbers) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < taskNumbers.length; i++) {
+            int first = taskNumbers[i];
+            while (i + 1 < taskNumbers.length && taskNumbers[i + 1] == taskNumbers[i] + 1) {
+                i++;
+            }
+            if (result.length() > 0) {
+                result.append(',');
+            }
+            result.append(first);
+            if (taskNumbers[i] != first) {
+                result.append('-').append(taskNumbers[i]);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,170 @@
+package duke.logic;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+import duke.task.Task;
+import duke.task.TaskList;
+
+/**
+ * Loads a data file in the text format into a task list.
+ *
+ * <p>Small files are read line by line. Large files are read in chunks that end at a newline, and the chunks are
+ * parsed in parallel on a fork-join pool while the next chunks are read and checksummed. The tasks of the chunks
+ * are then gathered in order, dropping each chunk as soon as its tasks are taken, and added to the list at once.</p>
+ *
+ * <p>Lines that cannot be parsed do not stop the load: they are moved to the {@link Quarantine} in order,
+ * and the lines after them are still loaded. If a line cannot be quarantined, no task is added at all,
+ * so that a partial list is never saved over the data file.</p>
+ */
+class TextSnapshotLoader {
+    private static final long PARALLEL_THRESHOLD = 1 << 20; // Smaller files are not worth splitting
+    private static final int MIN_CHUNK_SIZE = 1 << 18;
+    private static final int CHUNKS_PER_THREAD = 4; // More chunks than threads, so that uneven chunks even out
+    private final ForkJoinPool pool;
+
+    TextSnapshotLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    TextSnapshotLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads the data file into the task list.
+     *
+     * @param list       the task list to be added to
+     * @param textFile   the data file with one task per line
+     * @param quarantine where the lines that cannot be parsed are moved to
+     * @return the CRC32 checksum of the data file
+     * @throws IOException when the data file cannot be read, or a bad line cannot be quarantined
+     */
+    long load(TaskList list, File textFile, Quarantine quarantine) throws IOException {
+        long length = textFile.length();
+        if (length < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+            return loadLineByLine(list, textFile, quarantine);
+        }
+        int chunkSize = (int) Math.min(Integer.MAX_VALUE / 2,
+            Math.max(MIN_CHUNK_SIZE, length / ((long) pool.getParallelism() * CHUNKS_PER_THREAD)));
+        CRC32 crc = new CRC32();
+        List<ForkJoinTask<ParsedChunk>> chunks = new ArrayList<>();
+        try (InputStream input = new FileInputStream(textFile)) {
+            byte[] leftover = new byte[0]; // The start of a line that continues in the next chunk
+            boolean isAtEnd = false;
+            while (!isAtEnd) {
+                byte[] buffer = Arrays.copyOf(leftover, leftover.length + chunkSize);
+                int readCount = input.readNBytes(buffer, leftover.length, chunkSize);
+                crc.update(buffer, leftover.length, readCount);
+                int end = leftover.length + readCount;
+                isAtEnd = readCount < chunkSize;
+                int chunkEnd = isAtEnd ? end : lastIndexOf(buffer, (byte) '\n', end) + 1;
+                leftover = Arrays.copyOfRange(buffer, chunkEnd, end);
+                if (chunkEnd > 0) {
+                    chunks.add(pool.submit(() -> parseChunk(buffer, chunkEnd)));
+                }
+            }
+        }
+        List<Task> tasks = new ArrayList<>();
+        long lineCount = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            ParsedChunk parsedChunk = chunks.get(i).join();
+            chunks.set(i, null); // The finished task still holds the bytes and the tasks of the chunk
+            tasks.addAll(parsedChunk.tasks);
+            for (BadLine badLine : parsedChunk.badLines) {
+                quarantine.add(lineCount + badLine.index + 1, badLine.line, badLine.failure);
+            }
+            lineCount += parsedChunk.lineCount;
+        }
+        list.addTasks(tasks);
+        return crc.getValue();
+    }
+
+    private static long loadLineByLine(TaskList list, File textFile, Quarantine quarantine) throws IOException {
+        CRC32 crc = new CRC32();
+        List<Task> tasks = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new CheckedInputStream(new FileInputStream(textFile), crc), StandardCharsets.UTF_8))) {
+            long lineNumber = 1;
+            for (String lineOfData = reader.readLine(); lineOfData != null; lineOfData = reader.readLine()) {
+                try {
+                    tasks.add(Storage.parseStringIntoTask(lineOfData));
+                } catch (RuntimeException e) {
+                    quarantine.add(lineNumber, lineOfData, e);
+                }
+                lineNumber++;
+            }
+        }
+        list.addTasks(tasks);
+        return crc.getValue();
+    }
+
+    /**
+     * Parses the lines in the chunk, which end with \n, \r or \r\n like {@link BufferedReader#readLine()},
+     * keeping the lines that cannot be parsed aside.
+     */
+    private static ParsedChunk parseChunk(byte[] chunk, int end) {
+        ParsedChunk parsedChunk = new ParsedChunk();
+        int lineStart = 0;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && chunk[lineEnd] != '\n' && chunk[lineEnd] != '\r') {
+                lineEnd++;
+            }
+            String line = new String(chunk, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+            try {
+                parsedChunk.tasks.add(Storage.parseStringIntoTask(line));
+            } catch (RuntimeException e) {
+                parsedChunk.badLines.add(new BadLine(parsedChunk.lineCount, line, e));
+            }
+            parsedChunk.lineCount++;
+            boolean isCrLf = lineEnd + 1 < end && chunk[lineEnd] == '\r' && chunk[lineEnd + 1] == '\n';
+            lineStart = lineEnd + (isCrLf ? 2 : 1);
+        }
+        return parsedChunk;
+    }
+
+    private static int lastIndexOf(byte[] bytes, byte value, int end) {
+        int index = end - 1;
+        while (index >= 0 && bytes[index] != value) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * The tasks parsed from a chunk, and the lines of the chunk that could not be parsed.
+     */
+    private static class ParsedChunk {
+        private final List<Task> tasks = new ArrayList<>();
+        private final List<BadLine> badLines = new ArrayList<>();
+        private int lineCount;
+    }
+
+    /**
+     * A line that could not be parsed, along with its index in the chunk and the reason.
+     */
+    private static class BadLine {
+        private final int index;
+        private final String line;
+        private final RuntimeException failure;
+
+        BadLine(int index, String line, RuntimeException failure) {
+            this.index = index;
+            this.line = line;
+            this.failure = failure;
+        }
+    }
+}
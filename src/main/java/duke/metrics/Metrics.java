@@ -0,0 +1,302 @@
+package duke.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import duke.task.TaskList;
+
+/**
+ * Records how long the commands, the flushes of the storage and the loads of the data file take,
+ * and how many tasks of each type there are. The metrics are shown by the stats command and over JMX.
+ *
+ * <p>Metrics are off unless duke is started with {@code -D}{@value #ENABLED_PROPERTY}{@code =true}, or they are
+ * turned on by {@code stats on} or over JMX. While they are off, timing a command costs one read of a volatile
+ * flag. The metrics are registered with the platform MBean server when they are first turned on, so that
+ * starting duke does not wait for JMX.</p>
+ */
+public class Metrics implements MetricsMXBean {
+    public static final String OBJECT_NAME = "duke:type=Metrics";
+    public static final String ENABLED_PROPERTY = "duke.metrics";
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final Metrics INSTANCE = new Metrics();
+    private static volatile boolean isEnabled;
+    private static boolean isRegistered; // Guarded by the class
+    private final Map<String, LatencyHistogram> commandLatencies = new ConcurrentSkipListMap<>();
+    private final LatencyHistogram flushLatencies = new LatencyHistogram();
+    private final LongAdder flushBytesWritten = new LongAdder();
+    private final LatencyHistogram snapshotLatencies = new LatencyHistogram();
+    private final LongAdder snapshotBytesWritten = new LongAdder();
+    private volatile long lastLoadNanos;
+    private volatile int lastLoadedTaskCount;
+    private final Set<TaskList> taskLists = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    static {
+        if (Boolean.getBoolean(ENABLED_PROPERTY)) {
+            INSTANCE.setEnabled(true);
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts timing something, if metrics are on.
+     *
+     * @return the start time to be given to one of the record methods
+     */
+    public static long startTimer() {
+        return isEnabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Checks if the start time was taken while metrics were on, and hence should be recorded.
+     *
+     * @param start the start time from {@link #startTimer()}
+     * @return true if the time should be recorded
+     */
+    public static boolean isTimed(long start) {
+        return start != NOT_TIMED;
+    }
+
+    /**
+     * Records the time taken by a command since it started.
+     *
+     * @param command the name of the command
+     * @param start   the start time from {@link #startTimer()}
+     */
+    public static void recordCommand(String command, long start) {
+        if (isTimed(start)) {
+            long nanos = System.nanoTime() - start;
+            INSTANCE.commandLatencies.computeIfAbsent(command, name -> new LatencyHistogram()).record(nanos);
+        }
+    }
+
+    /**
+     * Records the time taken to write changes to the journal since it started, and the bytes written.
+     *
+     * @param start        the start time from {@link #startTimer()}
+     * @param bytesWritten the number of bytes written
+     */
+    public static void recordFlush(long start, long bytesWritten) {
+        if (isTimed(start)) {
+            INSTANCE.flushLatencies.record(System.nanoTime() - start);
+            INSTANCE.flushBytesWritten.add(bytesWritten);
+        }
+    }
+
+    /**
+     * Records the time taken to write a snapshot of the whole task list since it started, and the bytes written.
+     *
+     * @param start        the start time from {@link #startTimer()}
+     * @param bytesWritten the number of bytes written
+     */
+    public static void recordSnapshot(long start, long bytesWritten) {
+        if (isTimed(start)) {
+            INSTANCE.snapshotLatencies.record(System.nanoTime() - start);
+            INSTANCE.snapshotBytesWritten.add(bytesWritten);
+        }
+    }
+
+    /**
+     * Records the time taken to load a data file. Loads are always recorded, since they happen before
+     * metrics can be turned on from a command, and only once per data file.
+     *
+     * @param nanos     the time taken in nanoseconds
+     * @param taskCount the number of tasks loaded
+     */
+    public static void recordLoad(long nanos, int taskCount) {
+        INSTANCE.lastLoadNanos = nanos;
+        INSTANCE.lastLoadedTaskCount = taskCount;
+    }
+
+    /**
+     * Counts the tasks of the task list in the task counts over JMX, for as long as the task list is in use.
+     *
+     * @param taskList the task list to be counted
+     */
+    public static void watch(TaskList taskList) {
+        INSTANCE.taskLists.add(taskList);
+    }
+
+    /**
+     * Stops counting the tasks of the task list, such as once it has been unloaded.
+     *
+     * @param taskList the task list that is no longer counted
+     */
+    public static void unwatch(TaskList taskList) {
+        INSTANCE.taskLists.remove(taskList);
+    }
+
+    /**
+     * Counts the tasks in the task list by type, from the counts that the task list keeps.
+     *
+     * @param taskList the task list to be counted
+     * @return the number of tasks of each type, keyed by the lower case name of the type
+     */
+    public static Map<String, Integer> countTasksByType(TaskList taskList) {
+        Map<String, Integer> counts = new TreeMap<>();
+        taskList.countTasksByType().forEach((type, count) ->
+            counts.merge(type.getSimpleName().toLowerCase(), count, Integer::sum));
+        return counts;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    @Override
+    public void setEnabled(boolean isEnabled) {
+        if (isEnabled) {
+            register();
+        }
+        Metrics.isEnabled = isEnabled;
+    }
+
+    private static synchronized void register() {
+        if (isRegistered) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException e) {
+            System.out.println("Metrics cannot be shown over JMX: " + e.getMessage());
+        }
+        isRegistered = true;
+    }
+
+    /**
+     * Gets the durations of each command, and of writing the output of the listing commands.
+     *
+     * @return the histograms, sorted by the name of the command
+     */
+    public Map<String, LatencyHistogram> getCommandLatencies() {
+        return Collections.unmodifiableMap(commandLatencies);
+    }
+
+    public LatencyHistogram getFlushLatencies() {
+        return flushLatencies;
+    }
+
+    public LatencyHistogram getSnapshotLatencies() {
+        return snapshotLatencies;
+    }
+
+    public long getLastLoadNanos() {
+        return lastLoadNanos;
+    }
+
+    @Override
+    public Map<String, Long> getCommandCounts() {
+        return mapCommands(LatencyHistogram::getCount);
+    }
+
+    @Override
+    public Map<String, Double> getCommandMedianMillis() {
+        return mapCommandMillis(histogram -> histogram.getPercentileNanos(50));
+    }
+
+    @Override
+    public Map<String, Double> getCommand99thPercentileMillis() {
+        return mapCommandMillis(histogram -> histogram.getPercentileNanos(99));
+    }
+
+    @Override
+    public Map<String, Double> getCommandMaxMillis() {
+        return mapCommandMillis(LatencyHistogram::getMaxNanos);
+    }
+
+    private <T> Map<String, T> mapCommands(Function<LatencyHistogram, T> metric) {
+        Map<String, T> result = new TreeMap<>();
+        commandLatencies.forEach((command, histogram) -> result.put(command, metric.apply(histogram)));
+        return result;
+    }
+
+    private Map<String, Double> mapCommandMillis(ToLongFunction<LatencyHistogram> nanos) {
+        return mapCommands(histogram -> nanos.applyAsLong(histogram) / NANOS_PER_MILLI);
+    }
+
+    @Override
+    public long getFlushCount() {
+        return flushLatencies.getCount();
+    }
+
+    @Override
+    public double getFlush99thPercentileMillis() {
+        return flushLatencies.getPercentileNanos(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getFlushBytesWritten() {
+        return flushBytesWritten.sum();
+    }
+
+    @Override
+    public long getSnapshotCount() {
+        return snapshotLatencies.getCount();
+    }
+
+    @Override
+    public double getSnapshot99thPercentileMillis() {
+        return snapshotLatencies.getPercentileNanos(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getSnapshotBytesWritten() {
+        return snapshotBytesWritten.sum();
+    }
+
+    @Override
+    public double getLastLoadMillis() {
+        return lastLoadNanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public int getLastLoadedTaskCount() {
+        return lastLoadedTaskCount;
+    }
+
+    /**
+     * Counts the tasks of every task list in use by type.
+     *
+     * @return the number of tasks of each type, keyed by the lower case name of the type
+     */
+    @Override
+    public Map<String, Integer> getTaskCounts() {
+        List<TaskList> watchedLists;
+        synchronized (taskLists) {
+            watchedLists = List.copyOf(taskLists);
+        }
+        Map<String, Integer> counts = new TreeMap<>();
+        for (TaskList taskList : watchedLists) {
+            countTasksByType(taskList).forEach((type, count) -> counts.merge(type, count, Integer::sum));
+        }
+        return counts;
+    }
+
+    @Override
+    public void reset() {
+        commandLatencies.clear();
+        flushLatencies.reset();
+        flushBytesWritten.reset();
+        snapshotLatencies.reset();
+        snapshotBytesWritten.reset();
+    }
+}
@@ -0,0 +1,44 @@
+package duke.metrics;
+
+import java.util.Map;
+
+/**
+ * The metrics of duke as seen over JMX, under the name {@value Metrics#OBJECT_NAME}.
+ * Durations are in milliseconds, and the maps are keyed by the lower case name of the command.
+ */
+public interface MetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean isEnabled);
+
+    Map<String, Long> getCommandCounts();
+
+    Map<String, Double> getCommandMedianMillis();
+
+    Map<String, Double> getCommand99thPercentileMillis();
+
+    Map<String, Double> getCommandMaxMillis();
+
+    long getFlushCount();
+
+    double getFlush99thPercentileMillis();
+
+    long getFlushBytesWritten();
+
+    long getSnapshotCount();
+
+    double getSnapshot99thPercentileMillis();
+
+    long getSnapshotBytesWritten();
+
+    double getLastLoadMillis();
+
+    int getLastLoadedTaskCount();
+
+    Map<String, Integer> getTaskCounts();
+
+    /**
+     * Clears every metric recorded so far.
+     */
+    void reset();
+}
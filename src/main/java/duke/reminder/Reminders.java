@@ -0,0 +1,238 @@
+package duke.reminder;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import duke.task.Recurring;
+import duke.task.Task;
+import duke.task.TaskList;
+import duke.task.TaskListListener;
+
+/**
+ * Reminds the user of deadlines and events a while before they are due, such as in the command line or the window.
+ *
+ * <p>Each upcoming task that is not done has a timer in a {@link TimingWheel}, which is scheduled when the task is
+ * added and cancelled when it is marked as done or removed, both in O(1). Once started, a single thread advances
+ * the wheel every second, which only looks at the timers due in that second rather than at the whole task list.
+ * Tasks are told apart by their ids in the task list, so that the reminders also work for a columnar list.
+ * A recurring task only has a timer for its next occurrence, which is replaced by the one after once it is due.</p>
+ *
+ * <p>The tasks loaded lazily into a watched list are scheduled on the next tick, through the chronological index
+ * of the list, so that only the tasks with a reminder are decoded.</p>
+ */
+public class Reminders implements TaskListListener, Closeable {
+    public static final Duration DEFAULT_LEAD_TIME = Duration.ofMinutes(10);
+    private static final long TICK_SECONDS = 1;
+    private final long leadSeconds;
+    private final Clock clock;
+    private final Consumer<Task> notifier;
+    private final TimingWheel<Reminder> wheel; // Guarded by this
+    private final Map<Integer, TimingWheel.Timer<Reminder>> timersByTaskId = new HashMap<>(); // Guarded by this
+    private final List<TaskList> watchedLists = new ArrayList<>(); // Guarded by this
+    private final List<int[]> loadedIdRanges = new ArrayList<>(); // The first and last ids, guarded by this
+    private ScheduledExecutorService ticker; // Null until started
+
+    /**
+     * Creates reminders that are shown the lead time before each task is due.
+     *
+     * @param leadTime how long before the date and time of a task its reminder is shown
+     * @param notifier shows the reminder of a task. This is called on the thread of the reminders.
+     */
+    public Reminders(Duration leadTime, Consumer<Task> notifier) {
+        this(leadTime, Clock.systemDefaultZone(), notifier);
+    }
+
+    /**
+     * Creates reminders that are shown the lead time before each task is due, by the time of the clock.
+     *
+     * @param leadTime how long before the date and time of a task its reminder is shown
+     * @param clock    the clock giving the time and the time zone of the dates and times of the tasks
+     * @param notifier shows the reminder of a task
+     */
+    public Reminders(Duration leadTime, Clock clock, Consumer<Task> notifier) {
+        leadSeconds = leadTime.getSeconds();
+        this.clock = clock;
+        this.notifier = notifier;
+        wheel = new TimingWheel<>(now());
+    }
+
+    /**
+     * Reminds the user of the upcoming tasks in the task list, and of the tasks added to it from now on.
+     * This should be called before commands are run on the list.
+     *
+     * @param taskList the task list to be watched
+     */
+    public void watch(TaskList taskList) {
+        taskList.addListener(this); // Before reading the list, so that no change is missed
+        synchronized (this) {
+            watchedLists.add(taskList);
+        }
+        for (Map.Entry<? extends Task, Integer> entry : taskList.getUpcomingTasks()) {
+            // The task itself, rather than the occurrence of a recurring task
+            schedule(taskList.getTaskId(entry.getValue()), taskList.getTask(entry.getValue()));
+        }
+    }
+
+    /**
+     * Starts showing the reminders as they become due, on a thread of their own.
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "duke-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::showDueReminders, 0, TICK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Shows the reminders that have become due since the last time. This is called every second once started.
+     */
+    public void showDueReminders() {
+        scheduleLoadedTasks();
+        List<Task> dueTasks = new ArrayList<>();
+        synchronized (this) {
+            List<Reminder> dueReminders = new ArrayList<>();
+            wheel.advanceTo(now(), reminder -> {
+                timersByTaskId.remove(reminder.taskId);
+                dueReminders.add(reminder);
+            });
+            for (Reminder reminder : dueReminders) {
+                dueTasks.add(reminder.occurrence);
+                if (reminder.task instanceof Recurring) { // On to the next occurrence
+                    LocalDateTime after = reminder.occurrence.getDateTime();
+                    scheduleOccurrence(reminder.taskId, reminder.task, ((Recurring) reminder.task)
+                        .getOccurrenceAfter(after.isAfter(nowDateTime()) ? after : nowDateTime()));
+                }
+            }
+        }
+        dueTasks.forEach(notifier); // Outside the lock, since showing a reminder may take a while
+    }
+
+    /**
+     * Gets the number of reminders that have not been shown yet.
+     *
+     * @return the number of reminders
+     */
+    public synchronized int getPendingCount() {
+        return wheel.size();
+    }
+
+    @Override
+    public void taskAdded(int taskId, Task task) {
+        schedule(taskId, task);
+    }
+
+    @Override
+    public synchronized void tasksLoaded(int firstId, int count) {
+        if (count > 0) {
+            loadedIdRanges.add(new int[] {firstId, firstId + count - 1});
+        }
+    }
+
+    @Override
+    public void taskDone(int taskId) {
+        cancel(taskId);
+    }
+
+    @Override
+    public void taskRemoved(int taskId) {
+        cancel(taskId);
+    }
+
+    /**
+     * Stops showing reminders, and stops watching the task lists.
+     */
+    @Override
+    public void close() {
+        List<TaskList> lists;
+        synchronized (this) {
+            if (ticker != null) {
+                ticker.shutdownNow();
+            }
+            lists = List.copyOf(watchedLists);
+            watchedLists.clear();
+        }
+        lists.forEach(taskList -> taskList.removeListener(this));
+    }
+
+    /**
+     * Schedules the upcoming tasks among those loaded since the last tick.
+     */
+    private void scheduleLoadedTasks() {
+        List<int[]> ranges;
+        List<TaskList> lists;
+        synchronized (this) {
+            if (loadedIdRanges.isEmpty()) {
+                return;
+            }
+            ranges = List.copyOf(loadedIdRanges);
+            loadedIdRanges.clear();
+            lists = List.copyOf(watchedLists);
+        }
+        for (TaskList taskList : lists) {
+            for (int[] range : ranges) {
+                taskList.getUpcomingTasksById(nowDateTime(), range[0], range[1]).forEach(this::schedule);
+            }
+        }
+    }
+
+    private synchronized void schedule(int taskId, Task task) {
+        cancel(taskId);
+        if (task.getDateTime() == null || task.isDone()) {
+            return;
+        }
+        scheduleOccurrence(taskId, task,
+            task instanceof Recurring ? ((Recurring) task).getOccurrenceAfter(nowDateTime()) : task);
+    }
+
+    private synchronized void scheduleOccurrence(int taskId, Task task, Task occurrence) {
+        long dueSecond = occurrence.getDateTime().atZone(clock.getZone()).toEpochSecond();
+        if (dueSecond > now()) { // A reminder that is due already is still shown if the task is not
+            timersByTaskId.put(taskId, wheel.schedule(dueSecond - leadSeconds, new Reminder(taskId, task, occurrence)));
+        }
+    }
+
+    private synchronized void cancel(int taskId) {
+        TimingWheel.Timer<Reminder> timer = timersByTaskId.remove(taskId);
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+    }
+
+    private long now() {
+        return clock.instant().getEpochSecond();
+    }
+
+    private LocalDateTime nowDateTime() {
+        return LocalDateTime.ofInstant(clock.instant(), clock.getZone());
+    }
+
+    /**
+     * The reminder of a task, or of an occurrence of a recurring task, kept in the timing wheel until it is due.
+     */
+    private static class Reminder {
+        private final int taskId;
+        private final Task task;
+        private final Task occurrence; // The task itself, unless it recurs
+
+        Reminder(int taskId, Task task, Task occurrence) {
+            this.taskId = taskId;
+            this.task = task;
+            this.occurrence = occurrence;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package duke.reminder;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel, which keeps any number of timers and expires them as the time advances.
+ * Scheduling and cancelling a timer take O(1), and advancing by a tick only looks at the timers due in that tick.
+ *
+ * <p>Time is counted in ticks. There are {@value #LEVELS} wheels of {@value #SLOTS} slots each, where a slot
+ * of the wheel at level L covers 64<sup>L</sup> ticks. A timer is put in the lowest wheel that reaches its tick,
+ * and moves down to the wheel below when the wheel below comes round to its slot. A timer further away than
+ * the highest wheel reaches is kept in the furthest slot, and is put back as far as it can be until it is in reach.
+ * Each slot is a doubly linked list, so that a timer can be cancelled by unlinking it.</p>
+ *
+ * <p>The wheel is not thread-safe, and must be guarded by its owner.</p>
+ *
+ * @param <T> the type of the values of the timers
+ */
+class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 6;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+    private final Timer<T>[] slots; // The sentinel of the list in each slot of each level
+    private long currentTick; // The ticks up to this one have been expired
+    private int size;
+
+    /**
+     * Creates an empty timing wheel.
+     *
+     * @param currentTick the tick that the time is at, whose timers are taken to be expired already
+     */
+    @SuppressWarnings("unchecked")
+    TimingWheel(long currentTick) {
+        this.currentTick = currentTick;
+        slots = (Timer<T>[]) new Timer<?>[LEVELS * SLOTS];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Timer<>(0, null);
+            slots[i].previous = slots[i];
+            slots[i].next = slots[i];
+        }
+    }
+
+    /**
+     * Schedules a timer. A timer at or before the current tick expires on the next tick.
+     *
+     * @param tick  the tick when the timer expires
+     * @param value the value of the timer
+     * @return the timer, which can be cancelled
+     */
+    Timer<T> schedule(long tick, T value) {
+        Timer<T> timer = new Timer<>(tick, value);
+        place(timer, currentTick + 1);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Cancels a timer, if it has not expired or been cancelled yet.
+     *
+     * @param timer the timer to be cancelled
+     * @return true if the timer was cancelled by this call
+     */
+    boolean cancel(Timer<T> timer) {
+        if (timer.next == null) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the time to the tick, expiring the timers due by then one tick at a time.
+     *
+     * @param tick   the tick that the time is now at
+     * @param expiry receives the value of each expired timer
+     */
+    void advanceTo(long tick, Consumer<T> expiry) {
+        while (currentTick < tick) {
+            if (size == 0) {
+                currentTick = tick; // Nothing to expire or move down on the way
+                return;
+            }
+            currentTick++;
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++) {
+                Timer<T> sentinel = slots[level * SLOTS + slotAt(currentTick, level)];
+                for (Timer<T> timer = detachAll(sentinel); timer != null; ) {
+                    Timer<T> next = timer.next;
+                    place(timer, currentTick);
+                    timer = next;
+                }
+            }
+            Timer<T> sentinel = slots[slotAt(currentTick, 0)];
+            for (Timer<T> timer = detachAll(sentinel); timer != null; ) {
+                Timer<T> next = timer.next;
+                timer.next = null;
+                size--;
+                expiry.accept(timer.value);
+                timer = next;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Puts the timer in the slot of the lowest wheel that reaches its tick, but no earlier than the earliest tick.
+     */
+    private void place(Timer<T> timer, long earliestTick) {
+        long tick = Math.min(Math.max(timer.tick, earliestTick), currentTick + MAX_DELTA);
+        long delta = tick - currentTick;
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        Timer<T> sentinel = slots[level * SLOTS + slotAt(tick, level)];
+        timer.previous = sentinel.previous;
+        timer.next = sentinel;
+        sentinel.previous.next = timer;
+        sentinel.previous = timer;
+    }
+
+    private static int slotAt(long tick, int level) {
+        return (int) (tick >>> (SLOT_BITS * level)) & (SLOTS - 1);
+    }
+
+    private static <T> void unlink(Timer<T> timer) {
+        timer.previous.next = timer.next;
+        timer.next.previous = timer.previous;
+        timer.next = null;
+        timer.previous = null;
+    }
+
+    /**
+     * Empties the slot, returning its timers as a list linked by their next timer and ending with null.
+     */
+    private static <T> Timer<T> detachAll(Timer<T> sentinel) {
+        if (sentinel.next == sentinel) {
+            return null;
+        }
+        Timer<T> first = sentinel.next;
+        sentinel.previous.next = null;
+        sentinel.next = sentinel;
+        sentinel.previous = sentinel;
+        return first;
+    }
+
+    /**
+     * A timer in the wheel, which is linked into the list of its slot until it expires or is cancelled.
+     *
+     * @param <T> the type of the value of the timer
+     */
+    static class Timer<T> {
+        private final long tick;
+        private final T value;
+        private Timer<T> previous;
+        private Timer<T> next; // Null once the timer has expired or been cancelled
+
+        private Timer(long tick, T value) {
+            this.tick = tick;
+            this.value = value;
+        }
+
+        long getTick() {
+            return tick;
+        }
+
+        T getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package duke.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import duke.Duke;
+import duke.exception.DukeException;
+import duke.logic.CommandParser;
+import duke.logic.LoadReport;
+import duke.metrics.Metrics;
+import duke.ui.Ui;
+
+/**
+ * Serves duke to many users from one process, over a socket on the loopback address.
+ *
+ * <p>The protocol is the same as the command line: the first line sent by the client is the name of the user,
+ * and every line after it is a command. Each reply ends with a separator line, and the connection is closed
+ * after the bye command. Every user has their own task list, saved in {@code <user name>.txt} in the data directory,
+ * which is shared by all the connections of that user and unloaded when the last of them closes.
+ * A task list is loaded and unloaded without holding up the connections of the other users.
+ * Commands that only read the task list run at the same time, while commands that change it run one at a time
+ * for each user, so that the changes are saved in the order they were made.</p>
+ */
+public class DukeServer implements Closeable {
+    public static final String SEPARATOR = "----------------------------";
+    private static final Pattern USER_NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+    private static final String INVALID_NAME_MESSAGE = "Please connect again with a name of up to 32 letters,"
+        + " digits, dashes or underscores.";
+    private static final String USAGE = "Usage: DukeServer <port> [<data directory>]";
+    private final ServerSocket serverSocket;
+    private final File dataDirectory;
+    private final ExecutorService connectionExecutor;
+    private final ConcurrentMap<String, UserSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a server listening on the port of the loopback address.
+     *
+     * @param port          the port to listen on, or 0 for any free port
+     * @param dataDirectory the directory where the task lists of the users are saved
+     * @throws IOException when the server cannot listen on the port or the directory cannot be created.
+     */
+    public DukeServer(int port, File dataDirectory) throws IOException {
+        if (!dataDirectory.isDirectory() && !dataDirectory.mkdirs()) {
+            throw new IOException("Cannot create the data directory " + dataDirectory.getAbsolutePath());
+        }
+        this.dataDirectory = dataDirectory;
+        serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        connectionExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "duke-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts the server on the port given in the arguments, and serves until the process is stopped.
+     *
+     * @param args the port, followed by the data directory (by default the current directory)
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        try (DukeServer server = new DukeServer(Integer.parseInt(args[0]),
+            new File(args.length == 2 ? args[1] : "."))) {
+            System.out.println("Duke is serving on port " + server.getPort());
+            server.serve();
+        } catch (NumberFormatException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the server is closed, serving each connection on its own thread.
+     *
+     * @throws IOException when a connection cannot be accepted.
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                return; // The server was closed
+            }
+            connectionExecutor.execute(() -> handleConnection(socket));
+        }
+    }
+
+    /**
+     * Stops accepting connections and closes the connections that are open.
+     *
+     * @throws IOException when the server socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connectionExecutor.shutdownNow();
+    }
+
+    private void handleConnection(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(
+                 new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(
+                 new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String name = in.readLine();
+            if (name == null) {
+                return;
+            }
+            if (!USER_NAME_PATTERN.matcher(name).matches()) {
+                writeReply(out, INVALID_NAME_MESSAGE);
+                return;
+            }
+            UserSession session;
+            try {
+                session = openSession(name);
+            } catch (DukeException e) {
+                writeReply(out, e.getMessage());
+                return;
+            }
+            try {
+                Duke duke = session.duke.join();
+                LoadReport loadReport = duke.getStorage().getLoadReport();
+                writeReply(out, String.format("%s, that is a nice name. What can I do for you today?", name)
+                    + (loadReport.getQuarantinedCount() > 0 ? "\n" + loadReport : ""));
+                serveCommands(session, duke, new Ui(name), in, out);
+            } finally {
+                closeSession(name, session);
+            }
+        } catch (IOException e) {
+            // The client went away, and its changes have been saved with every command
+        }
+    }
+
+    private void serveCommands(UserSession session, Duke duke, Ui ui, BufferedReader in, Writer out)
+        throws IOException {
+        for (String command = in.readLine(); command != null; command = in.readLine()) {
+            boolean isExiting = false;
+            try {
+                CommandParser cmdParser;
+                if (CommandParser.isReadOnly(command)) {
+                    cmdParser = new CommandParser(command, duke.getTaskList(), duke.getStorage(), ui);
+                } else {
+                    synchronized (session) {
+                        cmdParser = new CommandParser(command, duke.getTaskList(), duke.getStorage(), ui);
+                    }
+                }
+                isExiting = cmdParser.willExit();
+                cmdParser.writeOutput(out); // The listings are snapshots, so they are written without the lock
+                out.append('\n');
+            } catch (DukeException e) {
+                out.append(e.getMessage()).append('\n');
+            }
+            out.append(SEPARATOR).append('\n');
+            out.flush();
+            if (isExiting) {
+                return;
+            }
+        }
+    }
+
+    private static void writeReply(Writer out, String reply) throws IOException {
+        out.append(reply).append('\n').append(SEPARATOR).append('\n');
+        out.flush();
+    }
+
+    /**
+     * Gets the session of the user, loading their task list if no other connection of theirs is open.
+     * The first connection loads the task list, and the others of the same user wait for it. If the last connection
+     * of the user is still saving their task list, it is loaded again once saved.
+     */
+    private UserSession openSession(String name) throws IOException {
+        UserSession session;
+        while (true) {
+            UserSession newSession = new UserSession();
+            session = sessions.putIfAbsent(name, newSession);
+            if (session == null) {
+                session = newSession;
+                loadSession(name, session);
+                break;
+            }
+            synchronized (session) {
+                if (!session.isClosing) {
+                    session.connectionCount++;
+                    break;
+                }
+            }
+            session.unloaded.join();
+        }
+        try {
+            session.duke.join();
+            return session;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Loads the task list of the user into the new session, which is already in the sessions but not yet
+     * used by any other connection. A session whose task list cannot be loaded is removed straight away.
+     */
+    private void loadSession(String name, UserSession session) {
+        synchronized (session) {
+            session.connectionCount++;
+        }
+        try {
+            session.duke.complete(new Duke(new File(dataDirectory, name + ".txt").getPath()));
+        } catch (IOException | RuntimeException e) {
+            sessions.remove(name, session);
+            session.unloaded.complete(null);
+            session.duke.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Unloads the task list of the user once their last connection closes, after waiting until its changes
+     * have been written and releasing its data file.
+     */
+    private void closeSession(String name, UserSession session) {
+        synchronized (session) {
+            session.connectionCount--;
+            if (session.connectionCount > 0) {
+                return;
+            }
+            session.isClosing = true;
+        }
+        Duke duke = session.duke.join();
+        try {
+            Metrics.unwatch(duke.getTaskList());
+            duke.getStorage().close();
+        } catch (IOException e) {
+            System.err.printf("The task list of %s could not be saved: %s\n", name, e.getMessage());
+        } finally {
+            sessions.remove(name, session);
+            session.unloaded.complete(null);
+        }
+    }
+
+    /**
+     * The task list of a user, along with the number of connections using it.
+     * Commands that change the task list are run one at a time by synchronizing on the session.
+     */
+    private static class UserSession {
+        private final CompletableFuture<Duke> duke = new CompletableFuture<>(); // Completed once loaded
+        private final CompletableFuture<Void> unloaded = new CompletableFuture<>(); // Completed once removed
+        private int connectionCount; // Guarded by the session
+        private boolean isClosing; // Guarded by the session
+    }
+}
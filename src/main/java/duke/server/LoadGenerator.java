@@ -0,0 +1,147 @@
+package duke.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests a {@link DukeServer} on the local machine by running many clients against it at the same time.
+ *
+ * <p>Each client connects as its own user and sends a mix of commands: it adds tasks, marks some of them as done,
+ * lists the first page of tasks and finds tasks. The throughput and the latency of the commands are printed
+ * once every client is done.</p>
+ */
+public class LoadGenerator {
+    private static final String USAGE = "Usage: LoadGenerator <port> <number of clients> <commands per client>";
+    private final int port;
+
+    public LoadGenerator(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Runs the clients against the server on the port given in the arguments, and prints the results.
+     *
+     * @param args the port, the number of clients and the number of commands sent by each client
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        LoadGenerator generator = new LoadGenerator(Integer.parseInt(args[0]));
+        int clientCount = Integer.parseInt(args[1]);
+        int commandCount = Integer.parseInt(args[2]);
+        long start = System.nanoTime();
+        long[] latencies = generator.run(clientCount, commandCount);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d commands from %d clients in %.2f s (%.0f commands/s)%n",
+            latencies.length, clientCount, seconds, latencies.length / seconds);
+        System.out.printf("Latency: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+            getPercentile(latencies, 50) / 1e6, getPercentile(latencies, 99) / 1e6,
+            getPercentile(latencies, 100) / 1e6);
+    }
+
+    /**
+     * Runs the clients at the same time, each on its own thread, and waits for all of them to finish.
+     *
+     * @param clientCount  the number of clients, each connecting as a different user
+     * @param commandCount the number of commands sent by each client, besides the name and bye
+     * @return the latency of every command in nanoseconds, sorted from the lowest
+     * @throws IOException when a client cannot talk to the server.
+     */
+    public long[] run(int clientCount, int commandCount) throws IOException, InterruptedException {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(clientCount);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int i = 0; i < clientCount; i++) {
+            String name = "load-" + i;
+            results.add(clientExecutor.submit(() -> runClient(name, commandCount)));
+        }
+        clientExecutor.shutdown();
+        long[] latencies = new long[clientCount * commandCount];
+        int latencyCount = 0;
+        try {
+            for (Future<long[]> result : results) {
+                long[] clientLatencies = result.get();
+                System.arraycopy(clientLatencies, 0, latencies, latencyCount, clientLatencies.length);
+                latencyCount += clientLatencies.length;
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("A client failed", e.getCause());
+        } finally {
+            clientExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private long[] runClient(String name, int commandCount) throws IOException {
+        long[] latencies = new long[commandCount];
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(
+                 new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(
+                 new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            send(name, in, out);
+            for (int i = 0; i < commandCount; i++) {
+                String command = getCommand(i);
+                long start = System.nanoTime();
+                send(command, in, out);
+                latencies[i] = System.nanoTime() - start;
+            }
+            send("bye", in, out);
+        }
+        return latencies;
+    }
+
+    /**
+     * Gets the command to send: mostly new tasks, with some done, list and find commands in between.
+     */
+    private static String getCommand(int index) {
+        switch (index % 10) {
+        case 3:
+            return "done " + (index / 2 + 1);
+        case 6:
+            return "list --page 1";
+        case 9:
+            return "find task " + (index - 1);
+        default:
+            return "todo task " + index;
+        }
+    }
+
+    /**
+     * Sends a line to the server and reads its reply, up to the separator.
+     */
+    private static void send(String line, BufferedReader in, Writer out) throws IOException {
+        out.append(line).append('\n');
+        out.flush();
+        for (String reply = in.readLine(); !DukeServer.SEPARATOR.equals(reply); reply = in.readLine()) {
+            if (reply == null) {
+                throw new IOException("The server closed the connection after: " + line);
+            }
+        }
+    }
+
+    private static long getPercentile(long[] sortedValues, int percentile) {
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(sortedValues.length * percentile / 100.0) - 1;
+        return sortedValues[Math.max(0, index)];
+    }
+}
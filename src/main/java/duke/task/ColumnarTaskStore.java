@@ -0,0 +1,179 @@
+package duke.task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Stores the tasks in columns instead of as objects, which takes several times less memory for large lists.
+ * The type of each task is a byte, the done flags are a bit set, the dates and times are epoch minutes,
+ * and the descriptions are UTF-8 bytes in one shared pool. A {@link Task} is only created when it is asked for,
+ * so changing it does not change the stored task: use {@link #markAsDone(int)} instead.
+ *
+ * <p>Tasks that cannot be stored in the columns (other types of tasks, or times with seconds)
+ * are kept as objects. Tasks that are added lazily are decoded straight away.</p>
+ */
+class ColumnarTaskStore implements TaskStore {
+    private static final byte FREE = 0;
+    private static final byte TODO = 1;
+    private static final byte DEADLINE = 2;
+    private static final byte EVENT = 3;
+    private static final byte OBJECT = 4;
+    private static final int INITIAL_POOL_SIZE = 1024;
+    private static final int MIN_GARBAGE_BEFORE_COMPACTION = 1 << 16;
+    private byte[] types = new byte[0];
+    private final BitSet doneIds = new BitSet();
+    private long[] startMinutes = new long[0]; // The date and time of deadlines, or the start of events
+    private long[] endMinutes = new long[0];
+    private int[] descriptionOffsets = new int[0];
+    private int[] descriptionLengths = new int[0];
+    private byte[] descriptionPool = new byte[INITIAL_POOL_SIZE];
+    private int poolSize;
+    private int poolGarbage; // The bytes of removed descriptions
+    private final Map<Integer, Task> objectTasks = new HashMap<>();
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        if (capacity > types.length) {
+            types = Arrays.copyOf(types, capacity);
+            startMinutes = Arrays.copyOf(startMinutes, capacity);
+            endMinutes = Arrays.copyOf(endMinutes, capacity);
+            descriptionOffsets = Arrays.copyOf(descriptionOffsets, capacity);
+            descriptionLengths = Arrays.copyOf(descriptionLengths, capacity);
+        }
+    }
+
+    @Override
+    public void set(int id, Task task) {
+        if (task.getClass() == Todo.class) {
+            types[id] = TODO;
+        } else if (task.getClass() == Deadline.class && isWholeMinute(task.getDateTime())) {
+            types[id] = DEADLINE;
+            startMinutes[id] = toEpochMinute(task.getDateTime());
+        } else if (task.getClass() == Event.class && isWholeMinute(task.getDateTime())
+            && isWholeMinute(((Event) task).getEndDateTime())) {
+            types[id] = EVENT;
+            startMinutes[id] = toEpochMinute(task.getDateTime());
+            endMinutes[id] = toEpochMinute(((Event) task).getEndDateTime());
+        } else {
+            types[id] = OBJECT;
+            objectTasks.put(id, task);
+            return;
+        }
+        doneIds.set(id, task.isDone());
+        addDescription(id, task.getDescription());
+    }
+
+    @Override
+    public void setLazily(int firstId, int count, IntFunction<Task> decoder) {
+        for (int i = 0; i < count; i++) {
+            set(firstId + i, decoder.apply(i));
+        }
+    }
+
+    @Override
+    public Task get(int id) {
+        Task task;
+        switch (types[id]) {
+        case TODO:
+            task = new Todo(getDescription(id));
+            break;
+        case DEADLINE:
+            task = new Deadline(getDescription(id), fromEpochMinute(startMinutes[id]));
+            break;
+        case EVENT:
+            task = new Event(getDescription(id), fromEpochMinute(startMinutes[id]), fromEpochMinute(endMinutes[id]));
+            break;
+        case OBJECT:
+            return objectTasks.get(id);
+        default:
+            throw new IllegalStateException("No task with id " + id);
+        }
+        if (doneIds.get(id)) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    @Override
+    public String getDescription(int id) {
+        if (types[id] == OBJECT) {
+            return objectTasks.get(id).getDescription();
+        }
+        return new String(descriptionPool, descriptionOffsets[id], descriptionLengths[id], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean markAsDone(int id) {
+        if (types[id] == OBJECT) {
+            return objectTasks.get(id).markAsDone();
+        }
+        if (doneIds.get(id)) {
+            return false;
+        }
+        doneIds.set(id);
+        return true;
+    }
+
+    @Override
+    public void clear(int id) {
+        if (types[id] == OBJECT) {
+            objectTasks.remove(id);
+        } else {
+            poolGarbage += descriptionLengths[id];
+            doneIds.clear(id);
+        }
+        types[id] = FREE;
+        if (poolGarbage > MIN_GARBAGE_BEFORE_COMPACTION && poolGarbage > poolSize / 2) {
+            compactPool();
+        }
+    }
+
+    private void addDescription(int id, String description) {
+        byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+        if (poolSize + bytes.length > descriptionPool.length) {
+            descriptionPool = Arrays.copyOf(descriptionPool,
+                Math.max(poolSize + bytes.length, descriptionPool.length * 2));
+        }
+        System.arraycopy(bytes, 0, descriptionPool, poolSize, bytes.length);
+        descriptionOffsets[id] = poolSize;
+        descriptionLengths[id] = bytes.length;
+        poolSize += bytes.length;
+    }
+
+    /**
+     * Copies the descriptions of the stored tasks into a new pool, leaving out those of removed tasks.
+     */
+    private void compactPool() {
+        byte[] newPool = new byte[Math.max(INITIAL_POOL_SIZE, (poolSize - poolGarbage) * 2)];
+        int newPoolSize = 0;
+        for (int id = 0; id < types.length; id++) {
+            if (types[id] == FREE || types[id] == OBJECT) {
+                continue;
+            }
+            System.arraycopy(descriptionPool, descriptionOffsets[id], newPool, newPoolSize, descriptionLengths[id]);
+            descriptionOffsets[id] = newPoolSize;
+            newPoolSize += descriptionLengths[id];
+        }
+        descriptionPool = newPool;
+        poolSize = newPoolSize;
+        poolGarbage = 0;
+    }
+
+    private static boolean isWholeMinute(LocalDateTime dateTime) {
+        return dateTime.getSecond() == 0 && dateTime.getNano() == 0;
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -1,8 +1,6 @@
 package duke.task;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 
 import duke.logic.DateTimeParser;
 
@@ -10,8 +8,7 @@ import duke.logic.DateTimeParser;
  * A deadline is a task that has a specific deadline.
  */
 public class Deadline extends Task {
-    private final LocalDate dateOfDeadline;
-    private final LocalTime timeOfDeadline;
+    private final LocalDateTime dateTimeOfDeadline;
 
     /**
      * Creates a new deadline object that has the given description and due on the given date.
@@ -22,8 +19,7 @@ public class Deadline extends Task {
     public Deadline(String description, String stringDateOfDeadline) {
         super(description, "D");
         DateTimeParser logicDateTimeParser = new DateTimeParser(stringDateOfDeadline);
-        timeOfDeadline = logicDateTimeParser.getTime();
-        dateOfDeadline = logicDateTimeParser.getDate();
+        dateTimeOfDeadline = LocalDateTime.of(logicDateTimeParser.getDate(), logicDateTimeParser.getTime());
     }
 
     /**
@@ -34,22 +30,23 @@ public class Deadline extends Task {
      */
     public Deadline(String description, LocalDateTime dateTime) {
         super(description, "D");
-        dateOfDeadline = dateTime.toLocalDate();
-        timeOfDeadline = dateTime.toLocalTime();
+        dateTimeOfDeadline = dateTime;
     }
 
     @Override
     public LocalDateTime getDateTime() {
-        return LocalDateTime.of(dateOfDeadline, timeOfDeadline);
+        return dateTimeOfDeadline;
     }
 
     @Override
-    public String toString() {
-        return super.toString() + String.format(" (by: %s, %s)", dateOfDeadline, timeOfDeadline); // No preposition
+    protected String renderDisplayLine() {
+        return super.renderDisplayLine() + " (by: " + dateTimeOfDeadline.toLocalDate() + ", "
+            + dateTimeOfDeadline.toLocalTime() + ")"; // No preposition
     }
 
     @Override
-    public String getDataLine() {
-        return super.getDataLine() + " | " + dateOfDeadline + " " + timeOfDeadline;
+    protected String renderDataLine() {
+        return super.renderDataLine() + " | " + dateTimeOfDeadline.toLocalDate() + " "
+            + dateTimeOfDeadline.toLocalTime();
     }
 }
@@ -1,8 +1,6 @@
 package duke.task;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 
 import duke.logic.DateTimeParser;
 
@@ -10,10 +8,8 @@ import duke.logic.DateTimeParser;
  * An event is a task that has a date attached.
  */
 public class Event extends Task {
-    private final LocalDate startDateOfEvent;
-    private final LocalTime startTimeOfEvent;
-    private final LocalDate endDateOfEvent;
-    private final LocalTime endTimeOfEvent;
+    private final LocalDateTime startDateTimeOfEvent;
+    private final LocalDateTime endDateTimeOfEvent;
 
     /**
      * Creates a new event with the given description on the given eventDate.
@@ -25,18 +21,15 @@ public class Event extends Task {
     public Event(String description, String startEventDateTime, String endEventDateTime) {
         super(description, "E");
         DateTimeParser logicDateTimeParser = new DateTimeParser(startEventDateTime); // to parse start
-        startTimeOfEvent = logicDateTimeParser.getTime();
-        startDateOfEvent = logicDateTimeParser.getDate();
+        startDateTimeOfEvent = LocalDateTime.of(logicDateTimeParser.getDate(), logicDateTimeParser.getTime());
 
         if (endEventDateTime == null
             || endEventDateTime.trim().isEmpty()) {
-            endDateOfEvent = startDateOfEvent;
-            endTimeOfEvent = startTimeOfEvent;
+            endDateTimeOfEvent = startDateTimeOfEvent;
         } else {
             logicDateTimeParser = new DateTimeParser(endEventDateTime,
-                startDateOfEvent, startTimeOfEvent); // to parse the end
-            endDateOfEvent = logicDateTimeParser.getDate();
-            endTimeOfEvent = logicDateTimeParser.getTime();
+                startDateTimeOfEvent.toLocalDate(), startDateTimeOfEvent.toLocalTime()); // to parse the end
+            endDateTimeOfEvent = LocalDateTime.of(logicDateTimeParser.getDate(), logicDateTimeParser.getTime());
         }
     }
 
@@ -49,10 +42,8 @@ public class Event extends Task {
      */
     public Event(String description, LocalDateTime startDateTime, LocalDateTime endDateTime) {
         super(description, "E");
-        startDateOfEvent = startDateTime.toLocalDate();
-        startTimeOfEvent = startDateTime.toLocalTime();
-        endDateOfEvent = endDateTime.toLocalDate();
-        endTimeOfEvent = endDateTime.toLocalTime();
+        startDateTimeOfEvent = startDateTime;
+        endDateTimeOfEvent = endDateTime;
     }
 
     /**
@@ -63,18 +54,29 @@ public class Event extends Task {
      */
     @Override
     public LocalDateTime getDateTime() {
-        return LocalDateTime.of(startDateOfEvent, startTimeOfEvent);
+        return startDateTimeOfEvent;
+    }
+
+    /**
+     * Gets the end date and time of the event.
+     *
+     * @return the associated LocalDateTime object
+     */
+    public LocalDateTime getEndDateTime() {
+        return endDateTimeOfEvent;
     }
 
     @Override
-    public String toString() {
-        return super.toString() + String.format(" (from: %s, %s to: %s, %s)",
-            startDateOfEvent, startTimeOfEvent, endDateOfEvent, endTimeOfEvent); // No preposition
+    protected String renderDisplayLine() {
+        return super.renderDisplayLine() + " (from: " + startDateTimeOfEvent.toLocalDate() + ", "
+            + startDateTimeOfEvent.toLocalTime() + " to: " + endDateTimeOfEvent.toLocalDate() + ", "
+            + endDateTimeOfEvent.toLocalTime() + ")"; // No preposition
     }
 
     @Override
-    public String getDataLine() {
-        return super.getDataLine() + " | " + startDateOfEvent + " "
-            + startTimeOfEvent + " | " + endDateOfEvent + " " + endTimeOfEvent;
+    protected String renderDataLine() {
+        return super.renderDataLine() + " | " + startDateTimeOfEvent.toLocalDate() + " "
+            + startDateTimeOfEvent.toLocalTime() + " | " + endDateTimeOfEvent.toLocalDate() + " "
+            + endDateTimeOfEvent.toLocalTime();
     }
 }
@@ -0,0 +1,205 @@
+package duke.task;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * An index of the events by the time that they take up, for finding the events that overlap a window of time.
+ *
+ * <p>The events are kept in an AVL tree ordered by their start, then by their order in the list. Each node also
+ * keeps the latest end in its subtree, so that a search skips every subtree that ends before the window
+ * and every right subtree that starts after it. Adding and removing an event takes O(log n), and finding the
+ * k events overlapping a window visits O(log n) nodes for each of them at worst, and O(log n + k) when the
+ * events are short compared to the window, as in a calendar.</p>
+ */
+class IntervalTree {
+    private final IntBinaryOperator compareOrder;
+    private Node root;
+    private int size;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param compareOrder compares the ids of two events by their order in the list
+     */
+    IntervalTree(IntBinaryOperator compareOrder) {
+        this.compareOrder = compareOrder;
+    }
+
+    /**
+     * Adds the event to the index.
+     *
+     * @param start the start of the event in epoch seconds
+     * @param end   the end of the event in epoch seconds, which is not before the start
+     * @param id    the id of the event
+     */
+    void add(long start, long end, int id) {
+        root = add(root, new Node(start, end, id));
+        size++;
+    }
+
+    /**
+     * Removes the event from the index.
+     *
+     * @param start the start of the event in epoch seconds, as when it was added
+     * @param id    the id of the event
+     */
+    void remove(long start, int id) {
+        int oldSize = size;
+        root = remove(root, start, id);
+        assert size == oldSize - 1 : "event " + id + " was not in the index";
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Visits the events that overlap the window in order of their start, then their order in the list.
+     * An event overlaps the window if it starts at or before the end of the window and ends at or after its start.
+     *
+     * @param from    the start of the window in epoch seconds
+     * @param to      the end of the window in epoch seconds
+     * @param visitor receives the start, end and id of each event
+     */
+    void forEachOverlapping(long from, long to, Visitor visitor) {
+        forEachOverlapping(root, from, to, visitor);
+    }
+
+    /**
+     * Visits every event in order of their start, then their order in the list.
+     *
+     * @param visitor receives the start, end and id of each event
+     */
+    void forEach(Visitor visitor) {
+        forEachOverlapping(root, Long.MIN_VALUE, Long.MAX_VALUE, visitor);
+    }
+
+    private static void forEachOverlapping(Node node, long from, long to, Visitor visitor) {
+        while (node != null && node.maxEnd >= from) {
+            forEachOverlapping(node.left, from, to, visitor);
+            if (node.start > to) {
+                return; // The right subtree starts even later
+            }
+            if (node.end >= from) {
+                visitor.visit(node.start, node.end, node.id);
+            }
+            node = node.right;
+        }
+    }
+
+    private int compare(long start, int id, Node node) {
+        return start != node.start ? Long.compare(start, node.start) : compareOrder.applyAsInt(id, node.id);
+    }
+
+    private Node add(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = add(node.left, added);
+        } else {
+            node.right = add(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    private Node remove(Node node, long start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = id == node.id ? 0 : compare(start, id, node);
+        if (comparison < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null || node.right == null) {
+                return node.left == null ? node.right : node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            size++; // Removing the successor below counts it again
+            Node right = remove(node.right, successor.start, successor.id);
+            successor.left = node.left;
+            successor.right = right;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = Math.max(node.end, Math.max(maxEnd(node.left), maxEnd(node.right)));
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static long maxEnd(Node node) {
+        return node == null ? Long.MIN_VALUE : node.maxEnd;
+    }
+
+    /**
+     * Receives the events found in the index.
+     */
+    interface Visitor {
+        void visit(long start, long end, int id);
+    }
+
+    private static class Node {
+        private final long start;
+        private final long end;
+        private final int id;
+        private long maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        Node(long start, long end, int id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package duke.task;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
+/**
+ * Stores each task as a {@link Task} object. Tasks that are added lazily are only decoded when first accessed.
+ * Only one decoder is kept, so the tasks of an earlier decoder are decoded when another decoder is given.
+ * The decoder is dropped once it has no task left to decode, such that the data it reads from can be released.
+ *
+ * <p>Tasks may be decoded by many threads reading the list at the same time, so decoding is synchronized,
+ * and a decoded task is published with release and acquire semantics.</p>
+ */
+class ObjectTaskStore implements TaskStore {
+    private static final VarHandle TASK_AT = MethodHandles.arrayElementVarHandle(Task[].class);
+    private Task[] tasks = new Task[0]; // By id. Null if the id is free, or if the task has not been decoded yet.
+    private int[] records; // The record to be decoded for each id, if there is a decoder
+    private final BitSet undecodedIds = new BitSet();
+    private IntFunction<Task> decoder;
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        if (capacity > tasks.length) {
+            tasks = Arrays.copyOf(tasks, capacity);
+        }
+    }
+
+    @Override
+    public void set(int id, Task task) {
+        tasks[id] = task;
+    }
+
+    @Override
+    public void setLazily(int firstId, int count, IntFunction<Task> decoder) {
+        for (int id = undecodedIds.nextSetBit(0); id >= 0; id = undecodedIds.nextSetBit(id + 1)) {
+            get(id);
+        }
+        if (records == null || records.length < tasks.length) {
+            records = Arrays.copyOf(records == null ? new int[0] : records, tasks.length);
+        }
+        for (int i = 0; i < count; i++) {
+            records[firstId + i] = i;
+        }
+        undecodedIds.set(firstId, firstId + count);
+        this.decoder = decoder;
+    }
+
+    @Override
+    public Task get(int id) {
+        Task task = (Task) TASK_AT.getAcquire(tasks, id);
+        return task == null ? decode(id) : task;
+    }
+
+    private synchronized Task decode(int id) {
+        Task task = tasks[id];
+        if (task == null) {
+            task = decoder.apply(records[id]);
+            TASK_AT.setRelease(tasks, id, task);
+            clearUndecoded(id);
+        }
+        return task;
+    }
+
+    private void clearUndecoded(int id) {
+        undecodedIds.clear(id);
+        if (decoder != null && undecodedIds.isEmpty()) {
+            decoder = null;
+            records = null;
+        }
+    }
+
+    @Override
+    public String getDescription(int id) {
+        return get(id).getDescription();
+    }
+
+    @Override
+    public boolean markAsDone(int id) {
+        return get(id).markAsDone();
+    }
+
+    @Override
+    public void clear(int id) {
+        tasks[id] = null;
+        clearUndecoded(id);
+    }
+}
@@ -0,0 +1,137 @@
+package duke.task;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+import duke.exception.DukeException;
+
+/**
+ * How often a recurring task repeats, such as every day, every weekday, every Monday or every month.
+ *
+ * <p>The occurrences are worked out from the first one when they are asked for, by jumping straight to the
+ * window of the query, so a task that repeats for years takes no more memory or time than one that repeats twice.
+ * Monthly and yearly occurrences are counted from the first one, so a task on the 31st falls on the last day
+ * of the shorter months and is back on the 31st in the longer ones.</p>
+ */
+public class Recurrence {
+    /** The word before the rule, as in {@code every weekday}. */
+    public static final String PREFIX = "every ";
+    private static final String USAGE_MESSAGE = "Please say how often the task repeats: day, weekday, week, month,"
+        + " year or a day of the week such as monday.";
+    private final String rule;
+    private final ChronoUnit unit; // The time between occurrences, or days for weekdays
+    private final DayOfWeek dayOfWeek; // The day of weekly occurrences, or null for the day of the first one
+    private final boolean isWeekdaysOnly;
+
+    private Recurrence(String rule, ChronoUnit unit, DayOfWeek dayOfWeek, boolean isWeekdaysOnly) {
+        this.rule = rule;
+        this.unit = unit;
+        this.dayOfWeek = dayOfWeek;
+        this.isWeekdaysOnly = isWeekdaysOnly;
+    }
+
+    /**
+     * Parses how often a task repeats, ignoring case.
+     *
+     * @param rule one of day, weekday, week, month and year, or a day of the week such as monday or mon
+     * @return the recurrence
+     * @throws DukeException when the rule is not one of these.
+     */
+    public static Recurrence parse(String rule) {
+        String normalized = rule.trim().toLowerCase(Locale.ROOT);
+        switch (normalized) {
+        case "day":
+        case "daily":
+            return new Recurrence("day", ChronoUnit.DAYS, null, false);
+        case "weekday":
+        case "weekdays":
+            return new Recurrence("weekday", ChronoUnit.DAYS, null, true);
+        case "week":
+        case "weekly":
+            return new Recurrence("week", ChronoUnit.WEEKS, null, false);
+        case "month":
+        case "monthly":
+            return new Recurrence("month", ChronoUnit.MONTHS, null, false);
+        case "year":
+        case "yearly":
+            return new Recurrence("year", ChronoUnit.YEARS, null, false);
+        default:
+            for (DayOfWeek day : DayOfWeek.values()) {
+                String name = day.name().toLowerCase(Locale.ROOT);
+                if (normalized.equals(name) || normalized.equals(name.substring(0, 3))) {
+                    return new Recurrence(name, ChronoUnit.WEEKS, day, false);
+                }
+            }
+            throw new DukeException(USAGE_MESSAGE);
+        }
+    }
+
+    /**
+     * Moves the date and time forward to the first day that the task can occur on,
+     * such as the next weekday for a task every weekday.
+     *
+     * @param dateTime the date and time given for the task
+     * @return the date and time of the first occurrence
+     */
+    public LocalDateTime align(LocalDateTime dateTime) {
+        if (dayOfWeek != null) {
+            return dateTime.with(TemporalAdjusters.nextOrSame(dayOfWeek));
+        }
+        LocalDateTime aligned = dateTime;
+        while (isWeekdaysOnly && isWeekend(aligned)) {
+            aligned = aligned.plusDays(1);
+        }
+        return aligned;
+    }
+
+    /**
+     * Gets the first occurrence at or after the date and time, in O(1) however many occurrences come before it.
+     *
+     * @param first the date and time of the first occurrence, as given by {@link #align(LocalDateTime)}
+     * @param from  the earliest date and time of the occurrence
+     * @return the date and time of the occurrence
+     */
+    public LocalDateTime getFirstAtOrAfter(LocalDateTime first, LocalDateTime from) {
+        if (!from.isAfter(first)) {
+            return first;
+        }
+        if (isWeekdaysOnly) {
+            LocalDateTime occurrence = from.toLocalDate().atTime(first.toLocalTime());
+            if (occurrence.isBefore(from)) {
+                occurrence = occurrence.plusDays(1);
+            }
+            return align(occurrence);
+        }
+        long count = unit.between(first, from); // The occurrences after the first, up to the date and time
+        LocalDateTime occurrence = first.plus(count, unit);
+        while (occurrence.isBefore(from)) { // A shorter month may have brought it before, by a day or so
+            count++;
+            occurrence = first.plus(count, unit);
+        }
+        return occurrence;
+    }
+
+    /**
+     * Gets the first occurrence after the date and time.
+     *
+     * @param first the date and time of the first occurrence, as given by {@link #align(LocalDateTime)}
+     * @param after the date and time that the occurrence is after
+     * @return the date and time of the occurrence
+     */
+    public LocalDateTime getFirstAfter(LocalDateTime first, LocalDateTime after) {
+        return getFirstAtOrAfter(first, after.plusNanos(1));
+    }
+
+    private static boolean isWeekend(LocalDateTime dateTime) {
+        DayOfWeek day = dateTime.getDayOfWeek();
+        return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+    }
+
+    @Override
+    public String toString() {
+        return PREFIX + rule;
+    }
+}
@@ -0,0 +1,36 @@
+package duke.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * A task that repeats, which is stored once. Its occurrences are one-off tasks that are only created
+ * when a query asks for them, such as the upcoming tasks or the events between two dates.
+ */
+public interface Recurring {
+    Recurrence getRecurrence();
+
+    /**
+     * Gets the date and time of the first occurrence, which the others are counted from.
+     *
+     * @return the associated LocalDateTime object
+     */
+    LocalDateTime getDateTime();
+
+    /**
+     * Creates the one-off task of the occurrence at the date and time, which is done if the task is.
+     *
+     * @param dateTime the date and time of the occurrence, which must be one that the task repeats on
+     * @return the new task
+     */
+    Task getOccurrence(LocalDateTime dateTime);
+
+    /**
+     * Creates the one-off task of the first occurrence after the date and time.
+     *
+     * @param dateTime the date and time that the occurrence is after
+     * @return the new task
+     */
+    default Task getOccurrenceAfter(LocalDateTime dateTime) {
+        return getOccurrence(getRecurrence().getFirstAfter(getDateTime(), dateTime));
+    }
+}
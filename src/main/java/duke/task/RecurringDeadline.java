@@ -0,0 +1,48 @@
+package duke.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * A deadline that repeats, such as rent that is due every month. Its date and time is that of the first occurrence.
+ */
+public class RecurringDeadline extends Deadline implements Recurring {
+    private final Recurrence recurrence;
+
+    /**
+     * Creates a new recurring deadline. If the date is not a day that the deadline repeats on,
+     * the first occurrence is moved forward to the next such day.
+     *
+     * @param description the description of the deadline
+     * @param dateTime    the due date/time of the first occurrence
+     * @param recurrence  how often the deadline repeats
+     */
+    public RecurringDeadline(String description, LocalDateTime dateTime, Recurrence recurrence) {
+        super(description, recurrence.align(dateTime));
+        this.recurrence = recurrence;
+    }
+
+    @Override
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    @Override
+    public Task getOccurrence(LocalDateTime dateTime) {
+        Deadline occurrence = new Deadline(getDescription(), dateTime);
+        if (isDone()) {
+            occurrence.markAsDone();
+        }
+        return occurrence;
+    }
+
+    @Override
+    protected String renderDisplayLine() {
+        return getStatus() + " " + getDescription() + " (" + recurrence + " by: " + getDateTime().toLocalDate()
+            + ", " + getDateTime().toLocalTime() + ")";
+    }
+
+    @Override
+    protected String renderDataLine() {
+        return super.renderDataLine() + " | " + recurrence;
+    }
+}
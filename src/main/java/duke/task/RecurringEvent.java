@@ -0,0 +1,55 @@
+package duke.task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * An event that repeats, such as a meeting every weekday. Its start and end are those of the first occurrence.
+ */
+public class RecurringEvent extends Event implements Recurring {
+    private final Recurrence recurrence;
+    private final Duration duration;
+
+    /**
+     * Creates a new recurring event. If the start is not on a day that the event repeats on,
+     * the first occurrence is moved forward to the next such day, along with its end.
+     *
+     * @param description   the description of the event
+     * @param startDateTime the start date/time of the first occurrence
+     * @param endDateTime   the end date/time of the first occurrence
+     * @param recurrence    how often the event repeats
+     */
+    public RecurringEvent(String description, LocalDateTime startDateTime, LocalDateTime endDateTime,
+                          Recurrence recurrence) {
+        super(description, recurrence.align(startDateTime),
+            recurrence.align(startDateTime).plus(Duration.between(startDateTime, endDateTime)));
+        this.recurrence = recurrence;
+        duration = Duration.between(startDateTime, endDateTime);
+    }
+
+    @Override
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    @Override
+    public Task getOccurrence(LocalDateTime dateTime) {
+        Event occurrence = new Event(getDescription(), dateTime, dateTime.plus(duration));
+        if (isDone()) {
+            occurrence.markAsDone();
+        }
+        return occurrence;
+    }
+
+    @Override
+    protected String renderDisplayLine() {
+        return getStatus() + " " + getDescription() + " (" + recurrence + " from: " + getDateTime().toLocalDate()
+            + ", " + getDateTime().toLocalTime() + " to: " + getEndDateTime().toLocalDate() + ", "
+            + getEndDateTime().toLocalTime() + ")";
+    }
+
+    @Override
+    protected String renderDataLine() {
+        return super.renderDataLine() + " | " + recurrence;
+    }
+}
@@ -1,15 +1,30 @@
 package duke.task;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Objects;
 
 /**
  * Task is a general class for any task that is to be saved by {@link duke.logic.Storage}.
+ *
+ * <p>The line shown to the user, the line in the data file and the date and time in epoch seconds
+ * are only worked out once, and the lines are worked out again after the task is marked as done.
+ * Subclasses add to the lines by overriding {@link #renderDisplayLine()} and {@link #renderDataLine()}.
+ * A task may be read by many threads while it is marked as done, so a line rendered at the same time
+ * as the task is marked is not kept.</p>
  */
 public abstract class Task {
+    /**
+     * The epoch second of the tasks without a date and time, which comes after every other date and time.
+     */
+    public static final long UNDATED = Long.MAX_VALUE;
+    private static final long NO_EPOCH_SECOND = Long.MIN_VALUE; // Not a date and time that can be parsed
     private final String description;
     private final String taskType;
-    private boolean isDone;
+    private volatile boolean isDone;
+    private volatile String displayLine; // Null until rendered
+    private volatile String dataLine; // Null until rendered
+    private volatile long epochSecond = NO_EPOCH_SECOND;
 
     /**
      * Creates a new task object with the description and type of task.
@@ -29,8 +44,7 @@ public abstract class Task {
      * @return the associated string
      */
     public String getStatus() {
-        return (isDone ? String.format("[%s][X]", taskType)
-            : String.format("[%s][ ]", taskType)); // mark done task with X
+        return "[" + taskType + (isDone ? "][X]" : "][ ]"); // mark done task with X
     }
 
     public boolean isDone() {
@@ -55,6 +69,8 @@ public abstract class Task {
             return false;
         }
         this.isDone = true;
+        displayLine = null;
+        dataLine = null;
         return true;
     }
 
@@ -65,6 +81,21 @@ public abstract class Task {
      */
     public abstract LocalDateTime getDateTime();
 
+    /**
+     * Gets the date and time of the task as the number of seconds since the epoch in UTC.
+     *
+     * @return the epoch second, or {@link #UNDATED} if the task has no date and time
+     */
+    public long getEpochSecond() {
+        long result = epochSecond;
+        if (result == NO_EPOCH_SECOND) {
+            LocalDateTime dateTime = getDateTime();
+            result = dateTime == null ? UNDATED : dateTime.toEpochSecond(ZoneOffset.UTC);
+            epochSecond = result;
+        }
+        return result;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -84,7 +115,25 @@ public abstract class Task {
 
     @Override
     public String toString() {
-        return String.format("%s %s", this.getStatus(), this.getDescription());
+        String line = displayLine;
+        if (line == null) {
+            boolean wasDone = isDone;
+            line = renderDisplayLine();
+            displayLine = line;
+            if (isDone != wasDone) {
+                displayLine = null; // Marked as done while rendering, so the line may be out of date
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Renders the line shown to the user, which is then kept until the task changes.
+     *
+     * @return the associated string
+     */
+    protected String renderDisplayLine() {
+        return this.getStatus() + " " + this.getDescription();
     }
 
     /**
@@ -93,6 +142,24 @@ public abstract class Task {
      * @return The associated string
      */
     public String getDataLine() {
-        return String.format("%s | %d | %s", taskType, isDone ? 1 : 0, description);
+        String line = dataLine;
+        if (line == null) {
+            boolean wasDone = isDone;
+            line = renderDataLine();
+            dataLine = line;
+            if (isDone != wasDone) {
+                dataLine = null; // Marked as done while rendering, so the line may be out of date
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Renders the line in the data file, which is then kept until the task changes.
+     *
+     * @return the associated string
+     */
+    protected String renderDataLine() {
+        return taskType + (isDone ? " | 1 | " : " | 0 | ") + description;
     }
 }
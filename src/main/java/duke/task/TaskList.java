@@ -2,23 +2,54 @@ package duke.task;
 
 import static java.util.AbstractMap.SimpleImmutableEntry;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import duke.exception.InvalidTaskNumberException;
 
 /**
  * Encapsulates a list of tasks that the user wants to keep track of.
+ *
+ * <p>The list can be shared by many threads. Reads such as listing, finding and getting the upcoming tasks
+ * run in parallel under a read lock, while changes are made one at a time under a write lock.
+ * The lists returned are snapshots, which do not change when tasks are added or removed later,
+ * although their tasks still show being marked as done.</p>
+ *
+ * <p>A {@link Recurring} task is stored once. Its occurrences are only created by the queries that ask for them,
+ * within their window of time, and are merged with the one-off tasks in chronological order.</p>
  */
 public class TaskList {
-    private final List<Task> tasks;
+    private final TaskSlots tasks;
     private final int limit;
+    private final boolean isColumnar;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<TaskListListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile NavigableSet<TimedTask> chronologicalIndex;
+    private volatile TrigramIndex trigramIndex;
+    private volatile IntervalTree eventIndex;
+    private volatile Set<Integer> recurringIds; // Kept apart from the other indexes, since their times change
+    private volatile boolean isDirty;
+    private volatile long version; // Incremented under the write lock whenever the list changes
+    private volatile Snapshot snapshot; // The tasks at a version, shared by readers until the next change
+    private final Map<Class<? extends Task>, Integer> typeCounts = new HashMap<>(); // Guarded by the lock
+    private final List<Runnable> uncountedLoads = new ArrayList<>(); // Guarded by the lock
 
     /**
      * Creates the task list with the given limit.
@@ -26,8 +57,21 @@ public class TaskList {
      * @param limit the limit to the size of the list. The number of tasks cannot exceed this limit.
      */
     public TaskList(int limit) {
-        tasks = new ArrayList<>();
+        this(limit, false);
+    }
+
+    /**
+     * Creates the task list with the given limit, which may store its tasks in columns to save memory.
+     * A columnar list creates a new task object each time a task is retrieved,
+     * so tasks must be marked as done through {@link #markAsDone(int)} rather than {@link Task#markAsDone()}.
+     *
+     * @param limit      the limit to the size of the list. The number of tasks cannot exceed this limit.
+     * @param isColumnar true to store the tasks in columns, or false to keep the task objects
+     */
+    public TaskList(int limit, boolean isColumnar) {
+        tasks = new TaskSlots(isColumnar ? new ColumnarTaskStore() : new ObjectTaskStore());
         this.limit = limit;
+        this.isColumnar = isColumnar;
     }
 
     /**
@@ -44,10 +88,129 @@ public class TaskList {
      * @throws InvalidTaskNumberException when the task number given is invalid.
      */
     public void addTask(Task task) {
-        if (tasks.size() >= limit) {
-            throw new InvalidTaskNumberException(size());
+        lock.writeLock().lock();
+        try {
+            if (tasks.size() >= limit) {
+                throw new InvalidTaskNumberException(tasks.size());
+            }
+            int id = tasks.add(task);
+            indexTask(id);
+            typeCounts.merge(task.getClass(), 1, Integer::sum);
+            markAsChanged();
+            notifyAdded(id, List.of(task));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the tasks into the list in order, all at once, such as when loading a data file.
+     * If there are more tasks than the limit allows, the tasks up to the limit are still added.
+     *
+     * @param newTasks the tasks to be added
+     * @throws InvalidTaskNumberException when the tasks would exceed the limit of the list.
+     */
+    public void addTasks(List<? extends Task> newTasks) {
+        lock.writeLock().lock();
+        try {
+            int count = Math.min(newTasks.size(), limit - tasks.size());
+            int firstId = tasks.addAll(newTasks.subList(0, count));
+            boolean hasIndex = chronologicalIndex != null || trigramIndex != null || eventIndex != null;
+            for (int id = firstId; hasIndex && id < firstId + count; id++) {
+                indexTask(id);
+            }
+            for (Task task : newTasks.subList(0, count)) {
+                typeCounts.merge(task.getClass(), 1, Integer::sum);
+            }
+            if (count > 0) {
+                markAsChanged();
+                notifyAdded(firstId, newTasks.subList(0, count));
+            }
+            if (count < newTasks.size()) {
+                throw new InvalidTaskNumberException(tasks.size());
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
-        tasks.add(task);
+    }
+
+    /**
+     * Adds a number of tasks into the list, which are only decoded when they are first accessed.
+     * This allows large lists to be loaded without creating every task up front.
+     *
+     * @param count   the number of tasks to be added
+     * @param decoder decodes the task given its index from 0 to count - 1
+     * @throws InvalidTaskNumberException when the tasks would exceed the limit of the list.
+     */
+    public void addTasksLazily(int count, IntFunction<Task> decoder) {
+        addTasksLazily(count, decoder, index -> decoder.apply(index).getClass());
+    }
+
+    /**
+     * Adds a number of tasks into the list, which are only decoded when they are first accessed.
+     * The types of the tasks are only read when the tasks are first counted by type, or a task is first removed.
+     *
+     * @param count      the number of tasks to be added
+     * @param decoder    decodes the task given its index from 0 to count - 1
+     * @param typeOfTask gets the class of the task given its index, without decoding the task
+     * @throws InvalidTaskNumberException when the tasks would exceed the limit of the list.
+     */
+    public void addTasksLazily(int count, IntFunction<Task> decoder, IntFunction<Class<? extends Task>> typeOfTask) {
+        lock.writeLock().lock();
+        try {
+            if (count > limit - tasks.size()) {
+                throw new InvalidTaskNumberException(tasks.size());
+            }
+            int firstId = tasks.addLazily(count, decoder);
+            boolean hasIndex = chronologicalIndex != null || trigramIndex != null || eventIndex != null;
+            for (int id = firstId; hasIndex && id < firstId + count; id++) {
+                indexTask(id);
+            }
+            uncountedLoads.add(() -> {
+                for (int i = 0; i < count; i++) {
+                    typeCounts.merge(typeOfTask.apply(i), 1, Integer::sum);
+                }
+            });
+            markAsChanged();
+            for (TaskListListener listener : listeners) {
+                listener.tasksLoaded(firstId, count); // Without decoding the tasks
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a listener that is told of every change made to the list from now on.
+     *
+     * @param listener the listener to be added
+     */
+    public void addListener(TaskListListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TaskListListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Tells the listeners of the tasks that were added, passing the tasks that were given rather than those
+     * in the store, which may only be created when asked for.
+     */
+    private void notifyAdded(int firstId, List<? extends Task> newTasks) {
+        for (TaskListListener listener : listeners) {
+            for (int i = 0; i < newTasks.size(); i++) {
+                listener.taskAdded(firstId + i, newTasks.get(i));
+            }
+        }
+    }
+
+    /**
+     * Records a change to the list. This is only called under the write lock.
+     */
+    private void markAsChanged() {
+        isDirty = true;
+        version++;
     }
 
     private boolean validTaskNumber(int taskNumber) {
@@ -62,10 +225,90 @@ public class TaskList {
      * @throws InvalidTaskNumberException when the task number given is invalid.
      */
     public Task removeTask(int taskNumber) {
-        if (validTaskNumber(taskNumber)) {
-            return tasks.remove(taskNumber - 1);
+        lock.writeLock().lock();
+        try {
+            int id = idOf(taskNumber);
+            unindexTask(id);
+            markAsChanged();
+            countLoadedTasks();
+            Task removedTask = tasks.remove(id);
+            uncount(removedTask);
+            listeners.forEach(listener -> listener.taskRemoved(id));
+            return removedTask;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the tasks with the task numbers all at once, such that the task numbers are those
+     * before any task is removed. Either every task is removed, or none is if a task number is invalid.
+     *
+     * @param taskNumbers the task numbers of the tasks to be removed, without repeats.
+     *                    These are the numbers that the user sees.
+     * @return the tasks that were removed, in the order of the task numbers
+     * @throws InvalidTaskNumberException when a task number given is invalid.
+     */
+    public List<Task> removeTasks(int[] taskNumbers) {
+        lock.writeLock().lock();
+        try {
+            int[] ids = idsOf(taskNumbers);
+            List<Task> removedTasks = new ArrayList<>(ids.length);
+            countLoadedTasks();
+            for (int id : ids) {
+                unindexTask(id);
+                Task removedTask = tasks.remove(id);
+                uncount(removedTask);
+                removedTasks.add(removedTask);
+                listeners.forEach(listener -> listener.taskRemoved(id));
+            }
+            if (ids.length > 0) {
+                markAsChanged();
+            }
+            return removedTasks;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the tasks in the list by type. The counts are kept as tasks are added and removed,
+     * so no task is created or decoded to count them.
+     *
+     * @return the number of tasks of each class
+     */
+    public Map<Class<? extends Task>, Integer> countTasksByType() {
+        lock.writeLock().lock(); // Counting the tasks that were loaded lazily updates the counts
+        try {
+            countLoadedTasks();
+            return Map.copyOf(typeCounts);
+        } finally {
+            lock.writeLock().unlock();
         }
-        throw new InvalidTaskNumberException(size());
+    }
+
+    /**
+     * Counts the types of the tasks that were loaded lazily. This must be done before a task is removed,
+     * since the task may be one of them.
+     */
+    private void countLoadedTasks() {
+        uncountedLoads.forEach(Runnable::run);
+        uncountedLoads.clear();
+    }
+
+    private void uncount(Task task) {
+        typeCounts.computeIfPresent(task.getClass(), (type, count) -> count == 1 ? null : count - 1);
+    }
+
+    /**
+     * Gets the ids of the task numbers before any task is changed, since removing a task renumbers the ones after it.
+     */
+    private int[] idsOf(int[] taskNumbers) {
+        int[] ids = new int[taskNumbers.length];
+        for (int i = 0; i < taskNumbers.length; i++) {
+            ids[i] = idOf(taskNumbers[i]);
+        }
+        return ids;
     }
 
     /**
@@ -76,49 +319,412 @@ public class TaskList {
      * @throws InvalidTaskNumberException when the task number given is invalid.
      */
     public Task getTask(int taskNumber) {
+        lock.readLock().lock();
+        try {
+            return tasks.get(idOf(taskNumber));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the id of the task with the task number. Unlike the task number, the id of a task does not change
+     * when other tasks are removed, but it may be given to a new task once this task is removed.
+     *
+     * @param taskNumber The task number of the task. This is the number that the user sees.
+     * @return the id of the task
+     * @throws InvalidTaskNumberException when the task number given is invalid.
+     */
+    public int getTaskId(int taskNumber) {
+        lock.readLock().lock();
+        try {
+            return idOf(taskNumber);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int idOf(int taskNumber) {
         if (!validTaskNumber(taskNumber)) {
-            throw new InvalidTaskNumberException(size());
+            throw new InvalidTaskNumberException(tasks.size());
         }
-        return tasks.get(taskNumber - 1);
+        return tasks.idAt(taskNumber - 1);
     }
 
     /**
-     * Gets all the tasks in the list.
+     * Gets the current task number of the task with the id.
      *
-     * @return the immutable list of tasks in this task list
+     * @param taskId the id of the task
+     * @return the task number that the user sees
+     * @throws IndexOutOfBoundsException when there is no task with the id.
+     */
+    public int getTaskNumber(int taskId) {
+        lock.readLock().lock();
+        try {
+            return tasks.positionOf(taskId) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets all the tasks in the list. The snapshot is only copied once after each change,
+     * and is shared by every read until the next change, except in a columnar list where keeping the task objects
+     * would take the memory that the columns save.
+     *
+     * @return the immutable snapshot of the tasks in this task list
      */
     public List<Task> getTasks() {
-        return Collections.unmodifiableList(tasks);
+        Snapshot current = snapshot;
+        if (current != null && current.version == version) {
+            return current.tasks;
+        }
+        lock.readLock().lock();
+        try {
+            current = new Snapshot(version, List.copyOf(tasks.asList()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!isColumnar) {
+            snapshot = current;
+        }
+        return current.tasks;
     }
 
     /**
      * Gets the list of all upcoming tasks in the list, sorted chronologically.
+     * Tasks without a date (to-dos) are placed last, and tasks at the same time are kept in list order.
+     * A recurring task is placed at its next occurrence.
      *
      * @return the list of tasks, with their corresponding task number
      */
     public List<SimpleImmutableEntry<? extends Task, Integer>> getUpcomingTasks() {
-        Map<Task, Integer> upcomingTasks = new TreeMap<>((task1, task2) -> {
-            LocalDateTime dateTime1 = task1.getDateTime();
-            LocalDateTime dateTime2 = task2.getDateTime();
-            // time can be null if task is to-do. By default, put all to-do to the last.
-            return dateTime1 == null
-                ? 1
-                : dateTime2 == null
-                ? -1
-                : dateTime1.equals(dateTime2) // In this situation, we have to sort based on order in tasklist.
-                ? Integer.compare(tasks.indexOf(task1), tasks.indexOf(task2))
-                : dateTime1.compareTo(dateTime2);
-        });
-        IntStream.range(1, tasks.size() + 1).forEach(i -> {
-            Task task = tasks.get(i - 1);
-            String type = task.getTaskType();
-            if (!task.isDone() && (// Task is not done and it is either to-do or the date is later than now.
-                type.equals("T") || task.getDateTime().isAfter(LocalDateTime.now()))) {
-                upcomingTasks.put(task, i);
+        LocalDateTime now = LocalDateTime.now();
+        long nowInSeconds = now.toEpochSecond(ZoneOffset.UTC);
+        NavigableSet<TimedTask> index = getChronologicalIndex();
+        Set<Integer> recurring = getRecurringIds();
+        lock.readLock().lock();
+        try {
+            List<Occurrence> occurrences = new ArrayList<>(); // The next occurrence of each recurring task
+            for (int id : recurring) {
+                Task task = tasks.get(id);
+                if (!task.isDone()) {
+                    occurrences.add(new Occurrence(id, ((Recurring) task).getOccurrenceAfter(now)));
+                }
+            }
+            ChronologicalMerge merge = new ChronologicalMerge(occurrences);
+            for (TimedTask timedTask : index.tailSet(new TimedTask(nowInSeconds, -1), true)) {
+                Task task = tasks.get(timedTask.id);
+                if (task.isDone() // Task may have been marked as done without going through the list
+                    || timedTask.epochSecond == nowInSeconds && !task.getDateTime().isAfter(now)) {
+                    continue;
+                }
+                merge.add(timedTask.epochSecond, timedTask.id, task);
+            }
+            return merge.finish();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the tasks with ids in the range that are not done and are due after the date and time, or recur,
+     * by their ids. The tasks are found through the chronological index, so that the other tasks in the range
+     * are not decoded, such as when reminders are set for the tasks that were loaded lazily.
+     *
+     * @param dateTime the date and time that the tasks are due after
+     * @param firstId  the first id of the range
+     * @param lastId   the last id of the range
+     * @return the tasks by their ids
+     */
+    public Map<Integer, Task> getUpcomingTasksById(LocalDateTime dateTime, int firstId, int lastId) {
+        long epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        NavigableSet<TimedTask> index = getChronologicalIndex();
+        Set<Integer> recurring = getRecurringIds();
+        lock.readLock().lock();
+        try {
+            Map<Integer, Task> upcomingTasks = new HashMap<>();
+            for (int id : recurring) {
+                if (id >= firstId && id <= lastId && !tasks.get(id).isDone()) {
+                    upcomingTasks.put(id, tasks.get(id));
+                }
+            }
+            for (TimedTask timedTask : index.tailSet(new TimedTask(epochSecond + 1, -1), true)) {
+                if (timedTask.id >= firstId && timedTask.id <= lastId && !tasks.get(timedTask.id).isDone()) {
+                    upcomingTasks.put(timedTask.id, tasks.get(timedTask.id));
+                }
+            }
+            return upcomingTasks;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the index of the tasks that are not done, ordered by date and time, then by order in the list.
+     * The index is only built when it is first needed, under the write lock, and is kept up to date from then on.
+     * This must not be called while holding the read lock, which cannot be upgraded.
+     */
+    private NavigableSet<TimedTask> getChronologicalIndex() {
+        if (chronologicalIndex != null) {
+            return chronologicalIndex;
+        }
+        lock.writeLock().lock();
+        try {
+            if (chronologicalIndex == null) {
+                chronologicalIndex = new TreeSet<>(
+                    Comparator.<TimedTask>comparingLong(timedTask -> timedTask.epochSecond)
+                        .thenComparing((timedTask, other) -> tasks.compareOrder(timedTask.id, other.id)));
+                for (int i = 0; i < tasks.size(); i++) {
+                    indexChronologically(tasks.idAt(i));
+                }
+            }
+            return chronologicalIndex;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexTask(int id) {
+        indexChronologically(id);
+        if (trigramIndex != null) {
+            trigramIndex.add(id, tasks.getDescription(id));
+        }
+        if (eventIndex != null) {
+            indexEvent(eventIndex, id);
+        }
+        if (recurringIds != null && tasks.get(id) instanceof Recurring) {
+            recurringIds.add(id);
+        }
+    }
+
+    private void unindexTask(int id) {
+        unindexChronologically(id);
+        if (trigramIndex != null) {
+            trigramIndex.remove(id, tasks.getDescription(id));
+        }
+        if (eventIndex != null && isOneOffEvent(tasks.get(id))) {
+            eventIndex.remove(tasks.get(id).getEpochSecond(), id);
+        }
+        if (recurringIds != null) {
+            recurringIds.remove(id);
+        }
+    }
+
+    private static boolean isOneOffEvent(Task task) {
+        return task instanceof Event && !(task instanceof Recurring);
+    }
+
+    private void indexEvent(IntervalTree index, int id) {
+        Task task = tasks.get(id);
+        if (isOneOffEvent(task)) {
+            long start = task.getEpochSecond();
+            long end = ((Event) task).getEndDateTime().toEpochSecond(ZoneOffset.UTC);
+            index.add(start, Math.max(start, end), id);
+        }
+    }
+
+    private void indexChronologically(int id) {
+        Task task = tasks.get(id);
+        if (chronologicalIndex != null && !task.isDone() && !(task instanceof Recurring)) {
+            chronologicalIndex.add(new TimedTask(task.getEpochSecond(), id));
+        }
+    }
+
+    private void unindexChronologically(int id) {
+        if (chronologicalIndex != null) {
+            chronologicalIndex.remove(new TimedTask(tasks.get(id).getEpochSecond(), id));
+        }
+    }
+
+    /**
+     * Gets the events that take place at any time between the two dates and times, including both,
+     * sorted chronologically. Tasks at the same time are kept in list order.
+     * A recurring event is included once for each of its occurrences in the window.
+     *
+     * @param from the start of the window
+     * @param to   the end of the window
+     * @return the list of events, with their corresponding task number
+     */
+    public List<SimpleImmutableEntry<? extends Task, Integer>> getEventsBetween(LocalDateTime from,
+                                                                                LocalDateTime to) {
+        IntervalTree index = getEventIndex();
+        Set<Integer> recurring = getRecurringIds();
+        lock.readLock().lock();
+        try {
+            List<Occurrence> occurrences = new ArrayList<>();
+            for (int id : recurring) {
+                addOccurrencesBetween(id, from, to, occurrences);
+            }
+            ChronologicalMerge merge = new ChronologicalMerge(occurrences);
+            index.forEachOverlapping(from.toEpochSecond(ZoneOffset.UTC), to.toEpochSecond(ZoneOffset.UTC),
+                (start, end, id) -> merge.add(start, id, tasks.get(id)));
+            return merge.finish();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the occurrences of the recurring event that overlap the window, if the task is a recurring event.
+     * The occurrences are found from the first one that ends in the window, which is worked out directly.
+     */
+    private void addOccurrencesBetween(int id, LocalDateTime from, LocalDateTime to, List<Occurrence> occurrences) {
+        Task task = tasks.get(id);
+        if (!(task instanceof RecurringEvent)) {
+            return;
+        }
+        RecurringEvent event = (RecurringEvent) task;
+        Recurrence recurrence = event.getRecurrence();
+        Duration duration = Duration.between(event.getDateTime(), event.getEndDateTime());
+        LocalDateTime start = recurrence.getFirstAtOrAfter(event.getDateTime(), from.minus(duration));
+        while (!start.isAfter(to)) {
+            occurrences.add(new Occurrence(id, event.getOccurrence(start)));
+            start = recurrence.getFirstAfter(event.getDateTime(), start);
+        }
+    }
+
+    /**
+     * Gets the events that are not done and overlap another such event, sorted chronologically.
+     * Events that only touch, where one ends as the next starts, do not overlap unless both take no time.
+     * An occurrence of a recurring event is included when it overlaps a one-off event. Recurring events are not
+     * checked against each other, since they repeat without end.
+     *
+     * <p>The events are swept in order of their start, keeping the one that ends last so far. An event overlaps
+     * an earlier one exactly when it starts before that end, or at the same time as the event before it.</p>
+     *
+     * @return the list of overlapping events, with their corresponding task number
+     */
+    public List<SimpleImmutableEntry<? extends Task, Integer>> getConflictingEvents() {
+        IntervalTree index = getEventIndex();
+        Set<Integer> recurring = getRecurringIds();
+        lock.readLock().lock();
+        try {
+            BitSet conflictingIds = new BitSet();
+            index.forEach(new IntervalTree.Visitor() {
+                private int latestEndingId = -1;
+                private long latestEnd;
+                private int previousId = -1;
+                private long previousStart;
+
+                @Override
+                public void visit(long start, long end, int id) {
+                    if (tasks.get(id).isDone()) {
+                        return;
+                    }
+                    if (previousId >= 0 && start == previousStart) {
+                        conflictingIds.set(previousId);
+                        conflictingIds.set(id);
+                    }
+                    if (latestEndingId >= 0 && start < latestEnd) {
+                        conflictingIds.set(latestEndingId);
+                        conflictingIds.set(id);
+                    }
+                    if (latestEndingId < 0 || end > latestEnd) {
+                        latestEndingId = id;
+                        latestEnd = end;
+                    }
+                    previousId = id;
+                    previousStart = start;
+                }
+            });
+            List<Occurrence> occurrences = new ArrayList<>();
+            for (int id : recurring) {
+                addConflictingOccurrences(id, index, conflictingIds, occurrences);
+            }
+            ChronologicalMerge merge = new ChronologicalMerge(occurrences);
+            index.forEach((start, end, id) -> {
+                if (conflictingIds.get(id)) {
+                    merge.add(start, id, tasks.get(id));
+                }
+            });
+            return merge.finish();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the occurrences of the recurring event that overlap a one-off event that is not done, if the task is
+     * a recurring event that is not done, and marks those one-off events as conflicting. For each one-off event,
+     * only the occurrences from the first that ends at or after its start are looked at.
+     */
+    private void addConflictingOccurrences(int id, IntervalTree index, BitSet conflictingIds,
+                                           List<Occurrence> occurrences) {
+        Task task = tasks.get(id);
+        if (!(task instanceof RecurringEvent) || task.isDone()) {
+            return;
+        }
+        RecurringEvent event = (RecurringEvent) task;
+        Recurrence recurrence = event.getRecurrence();
+        long duration = Duration.between(event.getDateTime(), event.getEndDateTime()).getSeconds();
+        Set<Long> addedStarts = new HashSet<>();
+        index.forEach((start, end, otherId) -> {
+            if (tasks.get(otherId).isDone()) {
+                return;
+            }
+            LocalDateTime occurrence = recurrence.getFirstAtOrAfter(event.getDateTime(),
+                LocalDateTime.ofEpochSecond(start - duration, 0, ZoneOffset.UTC));
+            long occurrenceStart = occurrence.toEpochSecond(ZoneOffset.UTC);
+            while (occurrenceStart <= end) {
+                if (occurrenceStart == start || occurrenceStart < end && start < occurrenceStart + duration) {
+                    conflictingIds.set(otherId);
+                    if (addedStarts.add(occurrenceStart)) {
+                        occurrences.add(new Occurrence(id, event.getOccurrence(occurrence)));
+                    }
+                }
+                occurrence = recurrence.getFirstAfter(event.getDateTime(), occurrence);
+                occurrenceStart = occurrence.toEpochSecond(ZoneOffset.UTC);
             }
         });
-        return upcomingTasks.entrySet().stream().map(SimpleImmutableEntry::new)
-            .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Gets the index of the events by their start and end, building it under the write lock if this is the first
+     * query. This must not be called while holding the read lock, which cannot be upgraded.
+     */
+    private IntervalTree getEventIndex() {
+        if (eventIndex != null) {
+            return eventIndex;
+        }
+        lock.writeLock().lock();
+        try {
+            if (eventIndex == null) {
+                IntervalTree index = new IntervalTree(tasks::compareOrder);
+                for (int i = 0; i < tasks.size(); i++) {
+                    indexEvent(index, tasks.idAt(i));
+                }
+                eventIndex = index;
+            }
+            return eventIndex;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the ids of the recurring tasks, finding them under the write lock if this is the first query.
+     * This must not be called while holding the read lock, which cannot be upgraded.
+     */
+    private Set<Integer> getRecurringIds() {
+        if (recurringIds != null) {
+            return recurringIds;
+        }
+        lock.writeLock().lock();
+        try {
+            if (recurringIds == null) {
+                Set<Integer> ids = new HashSet<>();
+                for (int i = 0; i < tasks.size(); i++) {
+                    if (tasks.get(tasks.idAt(i)) instanceof Recurring) {
+                        ids.add(tasks.idAt(i));
+                    }
+                }
+                recurringIds = ids;
+            }
+            return recurringIds;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -127,24 +733,89 @@ public class TaskList {
      * @return the immutable list of tasks with task numbers in this task list
      */
     public List<SimpleImmutableEntry<? extends Task, Integer>> getAllTasks() {
-        List<SimpleImmutableEntry<? extends Task, Integer>> result = new ArrayList<>();
-        IntStream.range(0, tasks.size()).forEach(i -> result.add(new SimpleImmutableEntry<>(tasks.get(i), i + 1)));
+        List<Task> allTasks = getTasks();
+        List<SimpleImmutableEntry<? extends Task, Integer>> result = new ArrayList<>(allTasks.size());
+        for (Task task : allTasks) {
+            result.add(new SimpleImmutableEntry<>(task, result.size() + 1));
+        }
         return Collections.unmodifiableList(result);
     }
 
     /**
-     * Gets all the tasks in the list containing the string in the description.
+     * Gets all the tasks in the list containing every word of the pattern in the description, ignoring case.
      *
-     * @param pattern the pattern to be matched with the task descriptions in the list
+     * <p>Only the tasks that share the rarest three-character substring of the words are checked,
+     * using an index that is built on the first search and kept up to date from then on.
+     * Words shorter than three characters cannot be looked up, so if all words are that short,
+     * every task is checked.</p>
+     *
+     * @param pattern the words to be matched with the task descriptions in the list, separated by spaces
      * @return the immutable list of tasks containing str in the description, with their task numbers
      */
     public List<SimpleImmutableEntry<? extends Task, Integer>> getTasksContaining(String pattern) {
-        return getAllTasks().stream().filter(taskAndNumber ->
-                taskAndNumber.getKey().getDescription().toUpperCase()
-                    .contains(pattern.toUpperCase()))
+        List<String> terms = Arrays.stream(TrigramIndex.normalize(pattern).trim().split("\\s+"))
             .collect(Collectors.toUnmodifiableList());
+        TrigramIndex index = getTrigramIndex();
+        List<SimpleImmutableEntry<? extends Task, Integer>> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int[] candidates = index.getCandidates(terms);
+            if (candidates == null) {
+                int taskNumber = 1;
+                for (int i = 0; i < tasks.size(); i++) {
+                    int id = tasks.idAt(i);
+                    if (containsAll(tasks.getDescription(id), terms)) {
+                        result.add(new SimpleImmutableEntry<>(tasks.get(id), taskNumber));
+                    }
+                    taskNumber++;
+                }
+                return Collections.unmodifiableList(result);
+            }
+            for (int id : candidates) {
+                if (containsAll(tasks.getDescription(id), terms)) {
+                    result.add(new SimpleImmutableEntry<>(tasks.get(id), tasks.positionOf(id) + 1));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparing(SimpleImmutableEntry::getValue));
+        return Collections.unmodifiableList(result);
+    }
+
+    private static boolean containsAll(String description, List<String> normalizedTerms) {
+        String normalizedDescription = TrigramIndex.normalize(description);
+        for (String term : normalizedTerms) {
+            if (!normalizedDescription.contains(term)) {
+                return false;
+            }
+        }
+        return true;
     }
 
+    /**
+     * Gets the trigram index, building it under the write lock if this is the first search.
+     * This must not be called while holding the read lock, which cannot be upgraded.
+     */
+    private TrigramIndex getTrigramIndex() {
+        if (trigramIndex != null) {
+            return trigramIndex;
+        }
+        lock.writeLock().lock();
+        try {
+            if (trigramIndex == null) {
+                TrigramIndex index = new TrigramIndex();
+                for (int i = 0; i < tasks.size(); i++) {
+                    int id = tasks.idAt(i);
+                    index.add(id, tasks.getDescription(id));
+                }
+                trigramIndex = index;
+            }
+            return trigramIndex;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
 
     /**
      * Marks the selected task as done.
@@ -154,7 +825,68 @@ public class TaskList {
      * @throws InvalidTaskNumberException when the task number given is invalid.
      */
     public boolean markAsDone(int taskNumber) {
-        return getTask(taskNumber).markAsDone();
+        lock.writeLock().lock();
+        try {
+            int id = idOf(taskNumber);
+            if (!tasks.get(id).isDone()) {
+                unindexChronologically(id); // Done tasks are never upcoming
+            }
+            boolean isMarked = tasks.markAsDone(id);
+            if (isMarked) {
+                markAsChanged();
+                listeners.forEach(listener -> listener.taskDone(id));
+            }
+            return isMarked;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the tasks with the task numbers as done all at once. Tasks that are already done are left as they are.
+     * Either every task is marked, or none is if a task number is invalid.
+     *
+     * @param taskNumbers the task numbers to be marked as done. These are the numbers that the user sees.
+     * @return the tasks that were marked as done by this call, in the order of the task numbers
+     * @throws InvalidTaskNumberException when a task number given is invalid.
+     */
+    public List<Task> markAsDone(int[] taskNumbers) {
+        lock.writeLock().lock();
+        try {
+            List<Task> markedTasks = new ArrayList<>();
+            for (int id : idsOf(taskNumbers)) {
+                if (tasks.get(id).isDone()) {
+                    continue;
+                }
+                unindexChronologically(id);
+                if (tasks.markAsDone(id)) {
+                    markedTasks.add(tasks.get(id));
+                    listeners.forEach(listener -> listener.taskDone(id));
+                }
+            }
+            if (!markedTasks.isEmpty()) {
+                markAsChanged();
+            }
+            return markedTasks;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if the list has changed since it was last saved.
+     *
+     * @return true if a task has been added, removed or marked as done since the last save
+     */
+    public boolean isDirty() {
+        return isDirty;
+    }
+
+    /**
+     * Marks the list as saved, such that it is no longer dirty until the next change.
+     */
+    public void markAsSaved() {
+        isDirty = false;
     }
 
     /**
@@ -163,7 +895,92 @@ public class TaskList {
      * @return the size of the list as an integer.
      */
     public int size() {
-        return tasks.size();
+        lock.readLock().lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
+    /**
+     * A task in the chronological index, keyed by its date and time and then its order in the list.
+     * To-dos are placed after all dated tasks, since their epoch second is {@link Task#UNDATED}.
+     */
+    private static class TimedTask {
+        private final long epochSecond;
+        private final int id;
+
+        TimedTask(long epochSecond, int id) {
+            this.epochSecond = epochSecond;
+            this.id = id;
+        }
+    }
+
+    /**
+     * An occurrence of a recurring task, created for a query.
+     */
+    private static class Occurrence {
+        private final long epochSecond;
+        private final int id;
+        private final Task task;
+
+        Occurrence(int id, Task task) {
+            this.epochSecond = task.getEpochSecond();
+            this.id = id;
+            this.task = task;
+        }
+    }
+
+    /**
+     * Builds the result of a query from the one-off tasks, which are added in chronological order and then
+     * list order, and the occurrences of the recurring tasks, which are merged in between them in the same order.
+     * This is only used under the read lock.
+     */
+    private class ChronologicalMerge {
+        private final List<Occurrence> occurrences;
+        private final List<SimpleImmutableEntry<? extends Task, Integer>> result = new ArrayList<>();
+        private int next; // The occurrences before this have been added
+
+        ChronologicalMerge(List<Occurrence> occurrences) {
+            occurrences.sort((occurrence, other) -> occurrence.epochSecond != other.epochSecond
+                ? Long.compare(occurrence.epochSecond, other.epochSecond)
+                : tasks.compareOrder(occurrence.id, other.id));
+            this.occurrences = occurrences;
+        }
+
+        void add(long epochSecond, int id, Task task) {
+            while (next < occurrences.size() && (occurrences.get(next).epochSecond < epochSecond
+                || occurrences.get(next).epochSecond == epochSecond
+                && tasks.compareOrder(occurrences.get(next).id, id) < 0)) {
+                addEntry(occurrences.get(next).id, occurrences.get(next).task);
+                next++;
+            }
+            addEntry(id, task);
+        }
+
+        List<SimpleImmutableEntry<? extends Task, Integer>> finish() {
+            for (; next < occurrences.size(); next++) {
+                addEntry(occurrences.get(next).id, occurrences.get(next).task);
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        private void addEntry(int id, Task task) {
+            result.add(new SimpleImmutableEntry<>(task, tasks.positionOf(id) + 1));
+        }
+    }
+
+    /**
+     * The tasks in the list at a version of the list.
+     */
+    private static class Snapshot {
+        private final long version;
+        private final List<Task> tasks;
+
+        Snapshot(long version, List<Task> tasks) {
+            this.version = version;
+            this.tasks = tasks;
+        }
+    }
 }
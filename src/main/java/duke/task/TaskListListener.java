@@ -0,0 +1,39 @@
+package duke.task;
+
+/**
+ * Listens to the changes made to a task list, such as to keep reminders of its tasks.
+ * The listener is called under the write lock of the list, so it must be quick and must not use the list.
+ */
+public interface TaskListListener {
+    /**
+     * Called after a task is added to the list.
+     *
+     * @param taskId the id of the task, which stays the same until the task is removed
+     * @param task   the task that was added
+     */
+    void taskAdded(int taskId, Task task);
+
+    /**
+     * Called after a number of tasks are added to the list at once, to be decoded when first accessed,
+     * such as when a large data file is loaded. The tasks are not passed, so that a listener only decodes
+     * the tasks that it needs, later and outside the lock of the list.
+     *
+     * @param firstId the id of the first task, which is followed by the ids of the others
+     * @param count   the number of tasks
+     */
+    void tasksLoaded(int firstId, int count);
+
+    /**
+     * Called after a task is marked as done.
+     *
+     * @param taskId the id of the task
+     */
+    void taskDone(int taskId);
+
+    /**
+     * Called after a task is removed from the list. Its id may then be given to a new task.
+     *
+     * @param taskId the id that the task had
+     */
+    void taskRemoved(int taskId);
+}
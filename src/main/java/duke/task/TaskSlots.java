@@ -0,0 +1,317 @@
+package duke.task;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Stores tasks in slots, such that each task keeps the same id for as long as it is in the list.
+ * The ids of removed tasks are reused by tasks that are added later.
+ *
+ * <p>The order of the tasks is kept separately: each task is given an increasing sequence number when it is added,
+ * and a Fenwick tree counts the sequence numbers still in use. This finds the task at a position, and the position
+ * of a task, in O(log n), and removes a task without shifting the ones after it. When the sequence numbers run out,
+ * the ones in use are renumbered from 0, which keeps their order.</p>
+ *
+ * <p>The tasks themselves are kept in a {@link TaskStore}. Some tasks may only be decoded when they are
+ * first accessed, see {@link #addLazily(int, IntFunction)}.</p>
+ */
+class TaskSlots {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NONE = -1;
+    private final TaskStore store;
+    private int[] sequenceOfId; // NONE if the id is free
+    private int[] freeIds;
+    private int freeIdCount;
+    private int usedIdCount; // Ids from 0 to usedIdCount - 1 have been handed out before
+    private int[] idOfSequence; // NONE if the task with the sequence number was removed
+    private int[] fenwickTree; // 1-based, counts the sequence numbers in use
+    private int sequenceCount;
+    private int size;
+
+    TaskSlots(TaskStore store) {
+        this.store = store;
+        store.ensureCapacity(INITIAL_CAPACITY);
+        sequenceOfId = new int[INITIAL_CAPACITY];
+        freeIds = new int[INITIAL_CAPACITY];
+        idOfSequence = new int[INITIAL_CAPACITY];
+        fenwickTree = new int[INITIAL_CAPACITY + 1];
+    }
+
+    /**
+     * Adds the task after all the other tasks.
+     *
+     * @param task the task to be added
+     * @return the id of the task
+     */
+    int add(Task task) {
+        Objects.requireNonNull(task);
+        int id = freeIdCount > 0 ? freeIds[--freeIdCount] : newIds(1);
+        store.set(id, task);
+        assignSequences(id, 1);
+        size++;
+        return id;
+    }
+
+    /**
+     * Adds the tasks after all the other tasks, in order. The tasks are given new ids that follow each other.
+     *
+     * @param newTasks the tasks to be added
+     * @return the id of the first task
+     */
+    int addAll(List<? extends Task> newTasks) {
+        int firstId = newIds(newTasks.size());
+        int id = firstId;
+        for (Task task : newTasks) {
+            store.set(id++, Objects.requireNonNull(task));
+        }
+        assignSequences(firstId, newTasks.size());
+        size += newTasks.size();
+        return firstId;
+    }
+
+    /**
+     * Adds a number of tasks after all the other tasks, which may only be decoded when they are first accessed.
+     *
+     * @param count   the number of tasks to be added
+     * @param decoder decodes the task given its index from 0 to count - 1
+     * @return the id of the first task. The other tasks have the ids that follow it.
+     */
+    int addLazily(int count, IntFunction<Task> decoder) {
+        int firstId = newIds(count);
+        store.setLazily(firstId, count, decoder);
+        assignSequences(firstId, count);
+        size += count;
+        return firstId;
+    }
+
+    /**
+     * Removes the task with the id, and frees the id.
+     *
+     * @param id the id of the task
+     * @return the removed task
+     */
+    Task remove(int id) {
+        Task task = get(id);
+        int sequence = sequenceOfId[id];
+        updateFenwickTree(sequence, -1);
+        idOfSequence[sequence] = NONE;
+        sequenceOfId[id] = NONE;
+        store.clear(id);
+        if (freeIdCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeIdCount++] = id;
+        size--;
+        return task;
+    }
+
+    /**
+     * Gets the task with the id.
+     *
+     * @param id the id of the task
+     * @return the task
+     */
+    Task get(int id) {
+        checkId(id);
+        return store.get(id);
+    }
+
+    /**
+     * Gets the description of the task with the id, which may be cheaper than getting the task.
+     *
+     * @param id the id of the task
+     * @return the description of the task
+     */
+    String getDescription(int id) {
+        checkId(id);
+        return store.getDescription(id);
+    }
+
+    /**
+     * Marks the task with the id as done.
+     *
+     * @param id the id of the task
+     * @return true if task is successfully marked, or false if task has been marked as done before.
+     */
+    boolean markAsDone(int id) {
+        checkId(id);
+        return store.markAsDone(id);
+    }
+
+    private void checkId(int id) {
+        if (!contains(id)) {
+            throw new IndexOutOfBoundsException("No task with id " + id);
+        }
+    }
+
+    /**
+     * Checks if there is a task with the id.
+     *
+     * @param id the id to be checked
+     * @return true if the id belongs to a task in the list
+     */
+    boolean contains(int id) {
+        return id >= 0 && id < usedIdCount && sequenceOfId[id] != NONE;
+    }
+
+    /**
+     * Gets the id of the task at the position in O(log n).
+     *
+     * @param position the zero-based position of the task in the list
+     * @return the id of the task
+     */
+    int idAt(int position) {
+        Objects.checkIndex(position, size);
+        // Finds the smallest sequence number with (position + 1) sequence numbers in use up to it.
+        int remaining = position + 1;
+        int sequence = 0;
+        for (int step = Integer.highestOneBit(idOfSequence.length); step > 0; step >>= 1) {
+            if (sequence + step <= idOfSequence.length && fenwickTree[sequence + step] < remaining) {
+                sequence += step;
+                remaining -= fenwickTree[sequence];
+            }
+        }
+        return idOfSequence[sequence];
+    }
+
+    /**
+     * Gets the position of the task with the id in O(log n).
+     *
+     * @param id the id of the task
+     * @return the zero-based position of the task in the list
+     */
+    int positionOf(int id) {
+        checkId(id);
+        int count = 0;
+        for (int i = sequenceOfId[id] + 1; i > 0; i -= i & -i) {
+            count += fenwickTree[i];
+        }
+        return count - 1;
+    }
+
+    /**
+     * Compares the tasks with the ids by their order in the list. A negative id comes before every task.
+     *
+     * @param id      the id of the first task
+     * @param otherId the id of the second task
+     * @return a negative number, zero or a positive number if the first task comes before, is the same as,
+     *     or comes after the second task
+     */
+    int compareOrder(int id, int otherId) {
+        return id == otherId ? 0
+            : id < 0 ? -1
+            : otherId < 0 ? 1
+            : Integer.compare(sequenceOfId[id], sequenceOfId[otherId]);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets a read-only view of the tasks in order. Iterating over the view takes O(n),
+     * while getting a task by its position takes O(log n).
+     *
+     * @return the view of the tasks
+     */
+    List<Task> asList() {
+        return new AbstractList<>() {
+            @Override
+            public Task get(int position) {
+                return TaskSlots.this.get(idAt(position));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<Task> iterator() {
+                return new Iterator<>() {
+                    private int sequence = nextSequenceInUse(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return sequence < sequenceCount;
+                    }
+
+                    @Override
+                    public Task next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Task task = TaskSlots.this.get(idOfSequence[sequence]);
+                        sequence = nextSequenceInUse(sequence + 1);
+                        return task;
+                    }
+                };
+            }
+        };
+    }
+
+    private int nextSequenceInUse(int sequence) {
+        while (sequence < sequenceCount && idOfSequence[sequence] == NONE) {
+            sequence++;
+        }
+        return sequence;
+    }
+
+    private int newIds(int count) {
+        int firstId = usedIdCount;
+        if (usedIdCount + count > sequenceOfId.length) {
+            int capacity = Math.max(usedIdCount + count, sequenceOfId.length * 2);
+            store.ensureCapacity(capacity);
+            sequenceOfId = Arrays.copyOf(sequenceOfId, capacity);
+        }
+        usedIdCount += count;
+        return firstId;
+    }
+
+    private void assignSequences(int firstId, int count) {
+        if (sequenceCount + count > idOfSequence.length) {
+            renumberSequences(Math.max(idOfSequence.length, 2 * (size + count)));
+        }
+        for (int id = firstId; id < firstId + count; id++) {
+            sequenceOfId[id] = sequenceCount;
+            idOfSequence[sequenceCount] = id;
+            updateFenwickTree(sequenceCount++, 1);
+        }
+    }
+
+    /**
+     * Renumbers the sequence numbers in use from 0, keeping their order, and rebuilds the Fenwick tree in O(n).
+     */
+    private void renumberSequences(int capacity) {
+        int[] newIdOfSequence = new int[capacity];
+        int newSequenceCount = 0;
+        for (int sequence = 0; sequence < sequenceCount; sequence++) {
+            int id = idOfSequence[sequence];
+            if (id != NONE) {
+                sequenceOfId[id] = newSequenceCount;
+                newIdOfSequence[newSequenceCount++] = id;
+            }
+        }
+        idOfSequence = newIdOfSequence;
+        sequenceCount = newSequenceCount;
+        fenwickTree = new int[capacity + 1];
+        for (int i = 1; i <= capacity; i++) {
+            fenwickTree[i] += i <= sequenceCount ? 1 : 0;
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                fenwickTree[parent] += fenwickTree[i];
+            }
+        }
+    }
+
+    private void updateFenwickTree(int sequence, int delta) {
+        for (int i = sequence + 1; i < fenwickTree.length; i += i & -i) {
+            fenwickTree[i] += delta;
+        }
+    }
+}
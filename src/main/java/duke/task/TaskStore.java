@@ -0,0 +1,64 @@
+package duke.task;
+
+import java.util.function.IntFunction;
+
+/**
+ * Stores the tasks of a {@link TaskSlots} by their ids. The slots decide which ids are in use,
+ * so the store is only asked about ids that hold a task.
+ */
+interface TaskStore {
+    /**
+     * Makes room for the ids from 0 to capacity - 1.
+     *
+     * @param capacity the number of ids
+     */
+    void ensureCapacity(int capacity);
+
+    /**
+     * Stores the task in the free id.
+     *
+     * @param id   the id of the task
+     * @param task the task to be stored
+     */
+    void set(int id, Task task);
+
+    /**
+     * Stores a number of tasks in the free ids from firstId on, which may only be decoded when first accessed.
+     *
+     * @param firstId the id of the first task
+     * @param count   the number of tasks
+     * @param decoder decodes the task given its index from 0 to count - 1
+     */
+    void setLazily(int firstId, int count, IntFunction<Task> decoder);
+
+    /**
+     * Gets the task with the id.
+     *
+     * @param id the id of the task
+     * @return the task
+     */
+    Task get(int id);
+
+    /**
+     * Gets the description of the task with the id.
+     *
+     * @param id the id of the task
+     * @return the description
+     */
+    String getDescription(int id);
+
+    /**
+     * Marks the task with the id as done.
+     *
+     * @param id the id of the task
+     * @return true if task is successfully marked, or false if task has been marked as done before.
+     */
+    boolean markAsDone(int id);
+
+    /**
+     * Frees the id of a removed task.
+     *
+     * @param id the id of the task
+     */
+    void clear(int id);
+}
@@ -18,30 +18,50 @@ public enum TasksEnum {
     EVENT() {
         @Override
         public Task getTask(String input) {
-            if (input == null || !input.contains(" /from ")) {
+            int every = indexOfRecurrence(input);
+            String oneOff = every < 0 ? input : input.substring(0, every);
+            int from = oneOff == null ? -1 : oneOff.indexOf(FROM_DELIMITER);
+            if (from < 0) {
                 throw new DukeException("There should be a description followed by \"/from\" and"
-                    + " then the starting date and time of the event. To specify end time, use \"/to\".");
+                    + " then the starting date and time of the event. To specify end time, use \"/to\"."
+                    + " To repeat it, add \"/every\" and how often.");
             }
-            String[] splitOtherInput = input.split(" /from ", 2);
-            String[] splitStartAndEnd = splitOtherInput[1].split(" /to ", 2);
-
-            return splitStartAndEnd.length < 2 // No end time
-                ? new Event(splitOtherInput[0], splitOtherInput[1], splitOtherInput[1])
-                : new Event(splitOtherInput[0], splitStartAndEnd[0], splitStartAndEnd[1]);
+            int start = from + FROM_DELIMITER.length();
+            int to = oneOff.indexOf(TO_DELIMITER, start);
+            String description = oneOff.substring(0, from);
+            Event event = to < 0 // No end time
+                ? new Event(description, oneOff.substring(start), oneOff.substring(start))
+                : new Event(description, oneOff.substring(start, to), oneOff.substring(to + TO_DELIMITER.length()));
+            return every < 0
+                ? event
+                : new RecurringEvent(description, event.getDateTime(), event.getEndDateTime(),
+                    parseRecurrence(input, every));
         }
     },
     DEADLINE() {
         @Override
         public Task getTask(String input) {
-            if (input == null || !input.contains(" /by ")) {
+            int every = indexOfRecurrence(input);
+            String oneOff = every < 0 ? input : input.substring(0, every);
+            int by = oneOff == null ? -1 : oneOff.indexOf(BY_DELIMITER);
+            if (by < 0) {
                 throw new DukeException("There should be a description followed by \"/by\" and"
-                    + " then the date and time of the deadline.");
+                    + " then the date and time of the deadline. To repeat it, add \"/every\" and how often.");
             }
-            String[] splitOtherInput = input.split(" /by ", 2);
-            return new Deadline(splitOtherInput[0], splitOtherInput[1]);
+            Deadline deadline = new Deadline(oneOff.substring(0, by), oneOff.substring(by + BY_DELIMITER.length()));
+            return every < 0
+                ? deadline
+                : new RecurringDeadline(deadline.getDescription(), deadline.getDateTime(),
+                    parseRecurrence(input, every));
         }
     };
 
+    // The arguments are split at the first of each delimiter by a plain search, without a regular expression.
+    private static final String FROM_DELIMITER = " /from ";
+    private static final String TO_DELIMITER = " /to ";
+    private static final String BY_DELIMITER = " /by ";
+    private static final String EVERY_DELIMITER = " /every "; // Split at the last, as it follows the dates
+
     /**
      * Creates a new task based on the description and date/time.
      *
@@ -49,4 +69,12 @@ public enum TasksEnum {
      * @return the new task
      */
     public abstract Task getTask(String input) throws DukeException;
+
+    private static int indexOfRecurrence(String input) {
+        return input == null ? -1 : input.lastIndexOf(EVERY_DELIMITER);
+    }
+
+    private static Recurrence parseRecurrence(String input, int every) {
+        return Recurrence.parse(input.substring(every + EVERY_DELIMITER.length()));
+    }
 }
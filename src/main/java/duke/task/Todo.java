@@ -27,7 +27,7 @@ public class Todo extends Task {
     }
 
     @Override
-    public String toString() {
-        return super.toString(); // No preposition
+    protected String renderDisplayLine() {
+        return super.renderDisplayLine(); // No preposition
     }
 }
@@ -0,0 +1,115 @@
+package duke.task;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An inverted index from every three-character substring (trigram) of the task descriptions
+ * to the ids of the tasks containing it. Descriptions are normalized to upper case,
+ * so that a case-insensitive search only has to look at the tasks that contain all the trigrams of a term.
+ */
+class TrigramIndex {
+    static final int GRAM_LENGTH = 3;
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    /**
+     * Normalizes the text such that searches are case-insensitive.
+     *
+     * @param text the description or search term
+     * @return the normalized text
+     */
+    static String normalize(String text) {
+        return text.toUpperCase();
+    }
+
+    private static long trigramAt(String normalized, int index) {
+        return (long) normalized.charAt(index) << 32
+            | (long) normalized.charAt(index + 1) << 16
+            | normalized.charAt(index + 2);
+    }
+
+    /**
+     * Adds the task to the index.
+     *
+     * @param id          the id of the task
+     * @param description the description of the task
+     */
+    void add(int id, String description) {
+        String normalized = normalize(description);
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            postings.computeIfAbsent(trigramAt(normalized, i), trigram -> new Postings()).add(id);
+        }
+    }
+
+    /**
+     * Removes the task from the index.
+     *
+     * @param id          the id of the task
+     * @param description the description of the task
+     */
+    void remove(int id, String description) {
+        String normalized = normalize(description);
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            long trigram = trigramAt(normalized, i);
+            Postings trigramPostings = postings.get(trigram);
+            if (trigramPostings != null && trigramPostings.remove(id) && trigramPostings.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Gets the ids of the tasks that may contain all the normalized terms.
+     * Every task that contains all the terms is included, but the candidates still have to be checked.
+     *
+     * @param normalizedTerms the normalized search terms
+     * @return the candidates, or null if every term is too short to be looked up
+     */
+    int[] getCandidates(List<String> normalizedTerms) {
+        Postings smallest = null;
+        for (String term : normalizedTerms) {
+            for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+                Postings trigramPostings = postings.getOrDefault(trigramAt(term, i), Postings.EMPTY);
+                if (smallest == null || trigramPostings.size < smallest.size) {
+                    smallest = trigramPostings;
+                }
+            }
+        }
+        return smallest == null ? null : Arrays.copyOf(smallest.ids, smallest.size);
+    }
+
+    /**
+     * The sorted ids of the tasks containing a trigram.
+     */
+    private static class Postings {
+        private static final Postings EMPTY = new Postings();
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return; // Trigram appears more than once in the description
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package duke.ui;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+
+import duke.exception.DukeException;
+import duke.logic.CommandParser;
+import duke.logic.Storage;
+import duke.task.TaskList;
+
+/**
+ * Runs a script of commands, one per line, without prompting the user.
+ *
+ * <p>The changes are only flushed to the storage every few commands (or once at the end),
+ * and the output is written to a buffered writer, so that large scripts are not slowed down by I/O.</p>
+ */
+public class BatchUi {
+    private static final String SEPARATOR = "----------------------------";
+    private final Ui ui;
+    private final int flushInterval;
+
+    /**
+     * Creates a new batch user interface.
+     *
+     * @param name          the name of the user, which is used in the output messages
+     * @param flushInterval the number of changing commands between flushes, or 0 to only flush at the end
+     */
+    public BatchUi(String name, int flushInterval) {
+        this.ui = new Ui(name);
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Runs every command from the script until the end of the script or the bye command,
+     * and flushes the remaining changes to the storage.
+     * Invalid commands are reported in the output along with their line number, and do not stop the script.
+     *
+     * @param script   the commands to be run, one per line. Blank lines are skipped.
+     * @param output   the writer that the output of the commands is written to
+     * @param taskList the task list that the commands are run on
+     * @param storage  the storage that the changes are saved to
+     * @return the number of commands that failed
+     * @throws IOException when the script cannot be read, or the output or the changes cannot be written.
+     */
+    public int run(BufferedReader script, Writer output, TaskList taskList, Storage storage) throws IOException {
+        storage.setFlushInterval(flushInterval);
+        int failedCount = 0;
+        int lineNumber = 0;
+        try {
+            String line;
+            while ((line = script.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    CommandParser cmdParser = new CommandParser(line, taskList, storage, ui);
+                    cmdParser.writeOutput(output);
+                    output.append('\n');
+                    if (cmdParser.willExit()) {
+                        break;
+                    }
+                } catch (DukeException e) {
+                    failedCount++;
+                    output.append("Line ").append(String.valueOf(lineNumber)).append(": ")
+                        .append(e.getMessage()).append('\n');
+                }
+                output.append(SEPARATOR).append('\n');
+            }
+        } finally {
+            storage.sync();
+            output.flush();
+        }
+        return failedCount;
+    }
+}
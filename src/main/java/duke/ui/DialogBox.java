@@ -24,6 +24,7 @@ public class DialogBox extends HBox {
     private Label dialog;
     @FXML
     private ImageView circleDisplayPicture;
+    private boolean isFlipped;
 
     /**
      * Creates a new dialog box ui that contains the message in l and the profile picture in image.
@@ -50,6 +51,8 @@ public class DialogBox extends HBox {
 
     private static void resizeAndClip(ImageView iv) {
         iv.setPreserveRatio(true);
+        iv.setFitWidth(0); // Clears the fit of the previous image, if any
+        iv.setFitHeight(0);
         double aspectRatio = iv.getImage().getWidth() / iv.getImage().getHeight();
         double tempWidthOrHeight = Math.min(iv.getImage().getWidth(), iv.getImage().getHeight());
         iv.setViewport(new Rectangle2D((iv.getImage().getWidth() - tempWidthOrHeight) / 2, (
@@ -62,6 +65,24 @@ public class DialogBox extends HBox {
         iv.setClip(new Circle(30, 30, 30));
     }
 
+    /**
+     * Shows another message in this dialog box, so that the box can be reused for a different message.
+     *
+     * @param message  the message to be displayed
+     * @param image    the profile picture to be displayed
+     * @param isByDuke true if the message is by duke, such that the box is flipped
+     */
+    void setMessage(String message, Image image, boolean isByDuke) {
+        dialog.setText(message + "\r");
+        if (circleDisplayPicture.getImage() != image) {
+            circleDisplayPicture.setImage(image);
+            resizeAndClip(circleDisplayPicture);
+        }
+        if (isFlipped != isByDuke) {
+            flip();
+        }
+    }
+
     /**
      * Gets the user dialog box with the user input and their profile picture.
      *
@@ -87,10 +108,11 @@ public class DialogBox extends HBox {
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Flips the dialog box such that the ImageView is on the left and text on the right, or back again.
      */
     private void flip() {
-        this.setAlignment(Pos.TOP_LEFT);
+        isFlipped = !isFlipped;
+        this.setAlignment(isFlipped ? Pos.TOP_LEFT : Pos.TOP_RIGHT);
         ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
         FXCollections.reverse(tmp);
         this.getChildren().setAll(tmp);
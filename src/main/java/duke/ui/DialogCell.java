@@ -0,0 +1,48 @@
+package duke.ui;
+
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+
+/**
+ * A cell of the conversation list, which reuses a single dialog box for whichever message it is showing.
+ * Only the cells on screen exist, so the number of dialog boxes does not grow with the conversation.
+ */
+public class DialogCell extends ListCell<DialogHistory.Message> {
+    private static final double SCROLL_BAR_WIDTH = 20;
+    private final ListView<DialogHistory.Message> listView;
+    private final Image userImg;
+    private final Image dukeImg;
+    private DialogBox dialogBox;
+
+    /**
+     * Creates a new cell for the list.
+     *
+     * @param listView the list of the conversation
+     * @param userImg  the profile picture of the user
+     * @param dukeImg  the profile picture of duke
+     */
+    public DialogCell(ListView<DialogHistory.Message> listView, Image userImg, Image dukeImg) {
+        this.listView = listView;
+        this.userImg = userImg;
+        this.dukeImg = dukeImg;
+        setPrefWidth(0); // Lets the dialog box wrap its text instead of scrolling sideways
+        setStyle("-fx-padding: 0");
+    }
+
+    @Override
+    protected void updateItem(DialogHistory.Message message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        Image image = message.isByUser() ? userImg : dukeImg;
+        if (dialogBox == null) {
+            dialogBox = new DialogBox(message.getText(), image);
+            dialogBox.prefWidthProperty().bind(listView.widthProperty().subtract(SCROLL_BAR_WIDTH));
+        }
+        dialogBox.setMessage(message.getText(), image, !message.isByUser());
+        setGraphic(dialogBox);
+    }
+}
@@ -0,0 +1,163 @@
+package duke.ui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The history of the messages in a conversation with duke, which only keeps the latest messages in memory.
+ *
+ * <p>Once there are more recent messages than the capacity, the oldest half of them is written to a spill file
+ * in one go. The spilled messages are read back when they are needed (such as when the user scrolls up),
+ * and the last few of them are cached.</p>
+ */
+public class DialogHistory implements Closeable {
+    private static final int CACHED_SPILLED_MESSAGES = 64;
+    private final int capacity;
+    private final List<Message> recentMessages = new ArrayList<>();
+    private final Map<Integer, Message> spilledCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Message> eldest) {
+            return size() > CACHED_SPILLED_MESSAGES;
+        }
+    };
+    private long[] spilledOffsets = new long[16]; // The offset of each spilled message in the spill file
+    private int spilledCount;
+    private File spillFile;
+    private RandomAccessFile spill;
+
+    /**
+     * Creates an empty history.
+     *
+     * @param capacity the number of the latest messages that are kept in memory
+     */
+    public DialogHistory(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds a message to the end of the history, spilling the older messages to disk if there are too many.
+     *
+     * @param text     the text of the message
+     * @param isByUser true if the user sent the message, or false if duke did
+     * @throws UncheckedIOException when the older messages cannot be spilled.
+     */
+    public void add(String text, boolean isByUser) {
+        recentMessages.add(new Message(text, isByUser));
+        if (recentMessages.size() > capacity) {
+            spillOldestMessages(capacity / 2);
+        }
+    }
+
+    /**
+     * Gets the message at the index, reading it from the spill file if it is no longer in memory.
+     *
+     * @param index the index of the message, from 0 for the first message
+     * @return the message
+     * @throws UncheckedIOException when a spilled message cannot be read.
+     */
+    public Message get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("No message at index " + index);
+        }
+        if (index >= spilledCount) {
+            return recentMessages.get(index - spilledCount);
+        }
+        return spilledCache.computeIfAbsent(index, this::readSpilledMessage);
+    }
+
+    public int size() {
+        return spilledCount + recentMessages.size();
+    }
+
+    /**
+     * Deletes the spill file.
+     *
+     * @throws IOException when the spill file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (spill != null) {
+            spill.close();
+            spillFile.delete();
+            spill = null;
+        }
+    }
+
+    private void spillOldestMessages(int count) {
+        try {
+            if (spill == null) {
+                spillFile = File.createTempFile("duke-dialog", ".history");
+                spillFile.deleteOnExit();
+                spill = new RandomAccessFile(spillFile, "rw");
+            }
+            if (spilledCount + count > spilledOffsets.length) {
+                spilledOffsets = Arrays.copyOf(spilledOffsets, Math.max(spilledCount + count, spilledCount * 2));
+            }
+            long offset = spill.length();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            List<Message> oldestMessages = recentMessages.subList(0, count);
+            int index = spilledCount;
+            for (Message message : oldestMessages) {
+                byte[] text = message.getText().getBytes(StandardCharsets.UTF_8);
+                spilledOffsets[index++] = offset + output.size();
+                output.writeBoolean(message.isByUser());
+                output.writeInt(text.length);
+                output.write(text);
+            }
+            spill.seek(offset);
+            spill.write(bytes.toByteArray());
+            oldestMessages.clear();
+            spilledCount += count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Message readSpilledMessage(int index) {
+        try {
+            spill.seek(spilledOffsets[index]);
+            boolean isByUser = spill.readBoolean();
+            byte[] text = new byte[spill.readInt()];
+            spill.readFully(text);
+            return new Message(new String(text, StandardCharsets.UTF_8), isByUser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A message sent by the user or by duke.
+     */
+    public static class Message {
+        private final String text;
+        private final boolean isByUser;
+
+        Message(String text, boolean isByUser) {
+            this.text = text;
+            this.isByUser = isByUser;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public boolean isByUser() {
+            return isByUser;
+        }
+    }
+}
@@ -3,28 +3,35 @@ package duke.ui;
 import java.io.IOException;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import duke.Duke;
 import duke.exception.DukeException;
+import duke.logic.LoadReport;
+import duke.reminder.Reminders;
+import duke.task.Task;
 import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.Region;
-import javafx.scene.layout.VBox;
 
 /**
  * Controller for MainWindow. Provides the layout for the other controls.
+ *
+ * <p>The conversation is shown in a list view, which only creates cells for the messages on screen.
+ * Only the latest messages are kept in memory, see {@link DialogHistory}.</p>
  */
 public class MainWindow extends AnchorPane {
+    private static final int MESSAGES_IN_MEMORY = 200;
+    private static final long MAX_STALENESS_MILLIS = 500; // Changes are written in the background
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<DialogHistory.Message> dialogList;
     @FXML
     private TextField userInput;
     @FXML
@@ -35,22 +42,30 @@ public class MainWindow extends AnchorPane {
     private Image dukeImg = new Image(
         Objects.requireNonNull(this.getClass().getResourceAsStream("/images/gigachad.jpg")));
 
+    private final Messages messages = new Messages(new DialogHistory(MESSAGES_IN_MEMORY));
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "duke-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int pendingCount; // The number of inputs waiting for a reply
+    // The fields below are used on the command thread once the window is shown
     private Duke duke;
     private Ui ui; // For getting output messages
+    private Reminders reminders; // Null until the data file is loaded
     // 0 -> 1 (with name) -> 2 (with file location)
     private int sequence = 0; // Checks to see if the user inputs their name, file location, and task list size.
 
     /**
-     * Initializes the main window by setting some properties to scroll pane and the dialog container.
+     * Initializes the main window by setting the messages and the cells of the dialog list.
      */
     @FXML
     public void initialize() {
         assert sequence == 0 : "Starting sequence should be 0.";
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
-        dialogContainer.setPrefHeight(Region.USE_COMPUTED_SIZE);
+        dialogList.setItems(messages);
+        dialogList.setCellFactory(listView -> new DialogCell(listView, userImg, dukeImg));
         // Gets the first dialog
-        dialogContainer.getChildren().add(DialogBox.getDukeDialog("Hi, I am Duke, what is your name?",
-            new Image(Objects.requireNonNull(this.getClass().getResourceAsStream("/images/gigachad.jpg")))));
+        messages.add("Hi, I am Duke, what is your name?", false);
     }
 
     public void setDuke(Duke d) {
@@ -58,36 +73,56 @@ public class MainWindow extends AnchorPane {
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Adds the user input to the dialog list and runs it on the command thread, such that the window stays responsive
+     * while the command runs. Duke's reply is added once it is ready. Clears the user input straight away.
      */
     @FXML
     private void handleUserInput() {
-        assert dialogContainer.getChildren().size() != 0 : "Dialog container should always have at least 1 message.";
+        assert messages.size() != 0 : "Dialog list should always have at least 1 message.";
+        String input = userInput.getText();
+        messages.add(input, true);
+        dialogList.scrollTo(messages.size() - 1);
+        userInput.clear();
+        setPendingCount(pendingCount + 1);
+        // The command thread runs the inputs one at a time, so the replies arrive in the order of the inputs.
+        CompletableFuture.supplyAsync(() -> respond(input), commandExecutor)
+            .exceptionally(e -> "Something went very wrong! " + e.getMessage())
+            .thenAccept(dukeText -> Platform.runLater(() -> showResponse(dukeText)));
+    }
+
+    /**
+     * Gets Duke's reply to the user input. This is only run on the command thread.
+     */
+    private String respond(String input) {
         String dukeText;
         switch (sequence) {
         case 0: // start
-            ui = new Ui(userInput.getText());
+            ui = new Ui(input);
             sequence++;
             dukeText =
                 String.format("Hi, %s! That is a nice name. Now, where would you want to store your duke data files?",
-                    userInput.getText());
+                    input);
             break;
         case 1: // get file location
-            // To temporarily store the file path to create duke.
-            String filePath = userInput.getText();
             try {
-                duke = new Duke(filePath);
+                duke = new Duke(input);
+                duke.getStorage().enableWriteBehind(MAX_STALENESS_MILLIS);
+                reminders = new Reminders(Reminders.DEFAULT_LEAD_TIME,
+                    task -> Platform.runLater(() -> showReminder(task)));
+                reminders.watch(duke.getTaskList());
+                reminders.start();
             } catch (IOException | DukeException e) {
                 dukeText = e.getMessage() + " Please try entering your file name again!";
                 break;
             }
             sequence++;
-            dukeText = "Great! You are all set! How can I help you today?";
+            LoadReport loadReport = duke.getStorage().getLoadReport();
+            dukeText = "Great! You are all set! How can I help you today?"
+                + (loadReport.getQuarantinedCount() > 0 ? "\n" + loadReport : "");
             break;
         case 2:
             try {
-                dukeText = getResponse(userInput.getText());
+                dukeText = getResponse(input);
             } catch (DukeException e) {
                 dukeText = e.getMessage();
             }
@@ -96,25 +131,81 @@ public class MainWindow extends AnchorPane {
             assert false : "Sequence not 0, 1 or 2.";
             dukeText = "Something went very wrong!";
         }
+        return dukeText;
+    }
 
-        dialogContainer.getChildren().addAll(
-            DialogBox.getUserDialog(userInput.getText(), userImg),
-            DialogBox.getDukeDialog(dukeText, dukeImg)
-        );
-        userInput.clear();
+    /**
+     * Adds Duke's reply to the dialog list, and exits after a while if the user said bye.
+     */
+    private void showResponse(String dukeText) {
+        messages.add(dukeText, false);
+        dialogList.scrollTo(messages.size() - 1);
+        setPendingCount(pendingCount - 1);
+        if (ui == null || !ui.willExit()) {
+            return;
+        }
+        if (reminders != null) {
+            reminders.close();
+        }
         CompletableFuture.delayedExecutor(2, TimeUnit.SECONDS).execute(() -> {
-            if (ui.willExit()) {
-                try {
-                    Platform.exit();
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
+            try {
+                Platform.exit();
+            } catch (Exception e) {
+                e.printStackTrace();
             }
         });
     }
 
+    /**
+     * Adds the reminder of a task that is coming up to the dialog list. This is only run on the JavaFX thread.
+     */
+    private void showReminder(Task task) {
+        messages.add(ui.getReminderMessage(task), false);
+        dialogList.scrollTo(messages.size() - 1);
+    }
+
+    /**
+     * Shows on the send button and in the input field whether inputs are still waiting for a reply.
+     */
+    private void setPendingCount(int pendingCount) {
+        this.pendingCount = pendingCount;
+        sendButton.setText(pendingCount > 0 ? "..." : "Send");
+        userInput.setPromptText(pendingCount > 0
+            ? String.format("Working on %d command%s...", pendingCount, pendingCount == 1 ? "" : "s")
+            : "");
+    }
+
     private String getResponse(String input) {
         assert input != null : "User input can never be null.";
         return ui.checkInput(input, duke);
     }
+
+    /**
+     * The messages of the conversation as an observable list, which reads them from the history
+     * only when the list view needs them.
+     */
+    private static class Messages extends ObservableListBase<DialogHistory.Message> {
+        private final DialogHistory history;
+
+        Messages(DialogHistory history) {
+            this.history = history;
+        }
+
+        void add(String text, boolean isByUser) {
+            beginChange();
+            history.add(text, isByUser);
+            nextAdd(history.size() - 1, history.size());
+            endChange();
+        }
+
+        @Override
+        public DialogHistory.Message get(int index) {
+            return history.get(index);
+        }
+
+        @Override
+        public int size() {
+            return history.size();
+        }
+    }
 }
@@ -1,10 +1,15 @@
 package duke.ui;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.util.Scanner;
 
 import duke.exception.DukeException;
 import duke.logic.CommandParser;
 import duke.logic.Storage;
+import duke.task.Task;
 import duke.task.TaskList;
 
 /**
@@ -12,6 +17,7 @@ import duke.task.TaskList;
  */
 public class TextCliUi {
     private final Scanner sc;
+    private final PrintWriter out; // Buffers the output of each command, which can be a very long list
     private final Ui ui;
     private boolean isExiting;
 
@@ -21,6 +27,7 @@ public class TextCliUi {
      */
     public TextCliUi() {
         sc = new Scanner(System.in);
+        out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
         String name = "";
         isExiting = false;
         String logo = " ____        _        \n"
@@ -51,14 +58,33 @@ public class TextCliUi {
      */
     public void checkInput(TaskList taskList, Storage storage) {
         String userInput = sc.nextLine();
-        try {
-            CommandParser cmdParser = new CommandParser(userInput, taskList, storage, ui);
-            isExiting = cmdParser.willExit();
-            System.out.println(cmdParser.getOutput());
-        } catch (DukeException e) {
-            System.out.println(e.getMessage());
-        } finally {
-            System.out.println("----------------------------");
+        synchronized (out) { // Reminders are not printed in the middle of the output
+            try {
+                CommandParser cmdParser = new CommandParser(userInput, taskList, storage, ui);
+                isExiting = cmdParser.willExit();
+                cmdParser.writeOutput(out);
+                out.println();
+            } catch (DukeException e) {
+                out.println(e.getMessage());
+            } catch (IOException e) {
+                e.printStackTrace(); // Not thrown by a PrintWriter
+            } finally {
+                out.println("----------------------------");
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Prints the reminder of a task that is coming up, between the outputs of the commands.
+     *
+     * @param task the task that is coming up
+     */
+    public void showReminder(Task task) {
+        synchronized (out) {
+            out.println(ui.getReminderMessage(task));
+            out.println("----------------------------");
+            out.flush();
         }
     }
 
@@ -2,15 +2,24 @@ package duke.ui;
 
 import static java.util.AbstractMap.SimpleImmutableEntry;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
 
 import duke.Duke;
 import duke.exception.DukeException;
 import duke.logic.CommandParser;
 import duke.logic.CommandsEnum;
+import duke.logic.Page;
 import duke.logic.Storage;
+import duke.metrics.LatencyHistogram;
+import duke.metrics.Metrics;
+import duke.task.Event;
 import duke.task.Task;
 import duke.task.TaskList;
 
@@ -34,7 +43,8 @@ public class Ui {
     }
 
     /**
-     * Checks the user input from the source.
+     * Checks the user input from the source. Since the whole output is returned at once, such as to be shown
+     * in the window, the commands listing tasks show at most a page of them unless asked for more.
      *
      * @param taskList the task list that the user is using
      * @param storage  the storage that the user wants the data to be stored into
@@ -44,7 +54,7 @@ public class Ui {
         String output = "";
         CommandParser cmdParser;
         try {
-            cmdParser = new CommandParser(userInput, taskList, storage, this);
+            cmdParser = new CommandParser(userInput, taskList, storage, this, Page.PAGE_SIZE);
             isExiting = cmdParser.willExit();
             output += cmdParser.getOutput() + "\n";
         } catch (DukeException e) {
@@ -95,6 +105,17 @@ public class Ui {
             displayNumberOfTasks(size));
     }
 
+    /**
+     * Returns the message when many tasks are removed at once.
+     *
+     * @param count the number of tasks removed
+     * @param size  the final size of the task list
+     * @return the output string
+     */
+    public String removeTasksMessage(int count, int size) {
+        return String.format("Noted. I've removed %d tasks.\n%s", count, displayNumberOfTasks(size));
+    }
+
     /**
      * Displays the message when the task is done.
      *
@@ -105,6 +126,93 @@ public class Ui {
         return String.format("Nice! I've marked this task as done:\n%s", displayTaskMessage(task));
     }
 
+    /**
+     * Returns the metrics: the tasks of each type, the last load of the data file, and the durations of the commands
+     * and of the saves if metrics are on.
+     *
+     * @param metrics    the metrics recorded so far
+     * @param taskCounts the number of tasks of each type
+     * @return the output string
+     */
+    public String getStatsMessage(Metrics metrics, Map<String, Integer> taskCounts) {
+        StringBuilder result = new StringBuilder("Ok, ").append(name).append(". Here are the stats:\n");
+        StringJoiner tasks = new StringJoiner(", ", "Tasks: ", "").setEmptyValue("Tasks: none");
+        taskCounts.forEach((type, count) -> tasks.add(count + " " + type));
+        result.append(tasks);
+        result.append(String.format("\nLast load: %d tasks in %.1f ms\n", metrics.getLastLoadedTaskCount(),
+            metrics.getLastLoadMillis()));
+        if (!metrics.isEnabled() && metrics.getCommandLatencies().isEmpty()) {
+            return result.append("Metrics are off. Type \"stats on\" to start timing commands.").toString();
+        }
+        result.append(String.format("%-16s %8s %10s %10s %10s", "Command", "Count", "Median ms", "99% ms", "Max ms"));
+        metrics.getCommandLatencies().forEach((command, latencies) -> appendLatencies(result, command, latencies));
+        appendLatencies(result, "journal writes", metrics.getFlushLatencies());
+        appendLatencies(result, "snapshots", metrics.getSnapshotLatencies());
+        result.append(String.format("\nWritten: %d bytes to the journal, %d bytes in snapshots",
+            metrics.getFlushBytesWritten(), metrics.getSnapshotBytesWritten()));
+        if (!metrics.isEnabled()) {
+            result.append("\nMetrics are off, so these are from before they were turned off.");
+        }
+        return result.toString();
+    }
+
+    private static void appendLatencies(StringBuilder result, String name, LatencyHistogram latencies) {
+        result.append(String.format("\n%-16s %8d %10.3f %10.3f %10.3f", name, latencies.getCount(),
+            latencies.getPercentileNanos(50) / 1e6, latencies.getPercentileNanos(99) / 1e6,
+            latencies.getMaxNanos() / 1e6));
+    }
+
+    /**
+     * Returns the message when metrics are turned on or off.
+     *
+     * @param isEnabled true if metrics are now on
+     * @return the output string
+     */
+    public String getStatsSwitchedMessage(boolean isEnabled) {
+        return isEnabled
+            ? "Metrics are on. Type \"stats\" to see how long each command takes."
+            : "Metrics are off. The durations recorded so far are kept until \"stats reset\".";
+    }
+
+    public String getStatsResetMessage() {
+        return "Noted. I've cleared the durations recorded so far.";
+    }
+
+    /**
+     * Displays the message when many tasks are marked as done at once.
+     *
+     * @param count the number of tasks that were not done before
+     * @return the output string
+     */
+    public String markTasksAsDoneMessage(int count) {
+        return String.format("Nice! I've marked %d task%s as done.", count, count == 1 ? "" : "s");
+    }
+
+    /**
+     * Returns the message when a command lists only some of the tasks it found.
+     *
+     * @param shownCount the number of tasks listed
+     * @param count      the number of tasks found
+     * @return the output string
+     */
+    public String getMoreResultsMessage(int shownCount, int count) {
+        return String.format("Showing %d of %d tasks. Add %s <page number> to the command to see the others, "
+            + "%d on each page.", shownCount, count, Page.PAGE_OPTION, Page.PAGE_SIZE);
+    }
+
+    /**
+     * Returns the reminder of a deadline or an event that is coming up.
+     *
+     * @param task the task that is coming up
+     * @return the output string
+     */
+    public String getReminderMessage(Task task) {
+        LocalDateTime dateTime = task.getDateTime();
+        return String.format("Reminder, %s! This task %s at %s, %s:\n%s", name,
+            task instanceof Event ? "starts" : "is due", dateTime.toLocalDate(), dateTime.toLocalTime(),
+            displayTaskMessage(task));
+    }
+
     /**
      * Displays the help message that contains documentations of the commands.
      *
@@ -132,8 +240,29 @@ public class Ui {
      */
     public String getAllTasksMessage(List<SimpleImmutableEntry<? extends Task, Integer>> tasksWithTaskNumbers,
                                      int maxTaskNumber) {
-        return (String.format("Ok, %s. I am getting all your tasks:\n%s", name,
-            getMultipleTasksMessage(tasksWithTaskNumbers, maxTaskNumber)));
+        StringBuilder result = new StringBuilder();
+        appendUnchecked(() -> appendEntries(appendHeader(result, "all your tasks"), tasksWithTaskNumbers,
+            maxTaskNumber));
+        return result.toString();
+    }
+
+    /**
+     * Writes the tasks of the list that are numbered consecutively, without building the whole output in memory.
+     *
+     * @param out             where the output is written to
+     * @param tasks           the tasks to be written, in order
+     * @param firstTaskNumber the task number of the first task
+     * @param maxTaskNumber   the size of the task list. This will ensure proper padding of numbers.
+     * @throws IOException when the output cannot be written.
+     */
+    public void writeAllTasks(Appendable out, List<? extends Task> tasks, int firstTaskNumber,
+                              int maxTaskNumber) throws IOException {
+        appendHeader(out, "all your tasks");
+        int taskNumber = firstTaskNumber;
+        for (Task task : tasks) {
+            appendTask(out, task, taskNumber, maxTaskNumber, taskNumber == firstTaskNumber);
+            taskNumber++;
+        }
     }
 
     /**
@@ -146,8 +275,23 @@ public class Ui {
     public String getUpcomingTasksMessage(
         List<SimpleImmutableEntry<? extends Task, Integer>> tasksWithTaskNumbers,
         int maxTaskNumber) {
-        return String.format("Ok, %s. I am getting all your upcoming tasks:\n%s", name,
-            getMultipleTasksMessage(tasksWithTaskNumbers, maxTaskNumber));
+        StringBuilder result = new StringBuilder();
+        appendUnchecked(() -> writeUpcomingTasks(result, tasksWithTaskNumbers, maxTaskNumber));
+        return result.toString();
+    }
+
+    /**
+     * Writes the upcoming tasks, without building the whole output in memory.
+     *
+     * @param out                  where the output is written to
+     * @param tasksWithTaskNumbers the list of tasks and task numbers, each in a SimpleImmutableEntry
+     * @param maxTaskNumber        the size of the task list. This will ensure proper padding of numbers.
+     * @throws IOException when the output cannot be written.
+     */
+    public void writeUpcomingTasks(Appendable out,
+                                   List<SimpleImmutableEntry<? extends Task, Integer>> tasksWithTaskNumbers,
+                                   int maxTaskNumber) throws IOException {
+        appendEntries(appendHeader(out, "all your upcoming tasks"), tasksWithTaskNumbers, maxTaskNumber);
     }
 
     /**
@@ -161,24 +305,112 @@ public class Ui {
     public String getTasksWithPatternMessage(String pattern,
                                              List<SimpleImmutableEntry<? extends Task, Integer>> tasksWithTaskNumbers,
                                              int maxTaskNumber) {
-        return (String.format("Ok, %s. I am getting all tasks containing %s:\n%s", name, pattern,
-            getMultipleTasksMessage(tasksWithTaskNumbers, maxTaskNumber)));
+        StringBuilder result = new StringBuilder();
+        appendUnchecked(() -> writeTasksWithPattern(result, pattern, tasksWithTaskNumbers, maxTaskNumber));
+        return result.toString();
     }
 
-    private String getMultipleTasksMessage(
-        List<SimpleImmutableEntry<? extends Task, Integer>> tasksWithTaskNumbers,
-        int maxTaskNumber) {
-        StringBuilder result = new StringBuilder();
+    /**
+     * Writes the tasks containing a pattern, without building the whole output in memory.
+     *
+     * @param out                  where the output is written to
+     * @param pattern              the string pattern that the user is searching for
+     * @param tasksWithTaskNumbers the list of tasks and task numbers, each in a SimpleImmutableEntry
+     * @param maxTaskNumber        the size of the task list. This will ensure proper padding of numbers.
+     * @throws IOException when the output cannot be written.
+     */
+    public void writeTasksWithPattern(Appendable out, String pattern,
+                                      List<SimpleImmutableEntry<? extends Task, Integer>> tasksWithTaskNumbers,
+                                      int maxTaskNumber) throws IOException {
+        appendEntries(appendHeader(out, "all tasks containing " + pattern), tasksWithTaskNumbers, maxTaskNumber);
+    }
+
+    /**
+     * Writes the events between two dates and times, without building the whole output in memory.
+     *
+     * @param out                  where the output is written to
+     * @param from                 the start of the window
+     * @param to                   the end of the window
+     * @param tasksWithTaskNumbers the list of events and task numbers, each in a SimpleImmutableEntry
+     * @param maxTaskNumber        the size of the task list. This will ensure proper padding of numbers.
+     * @throws IOException when the output cannot be written.
+     */
+    public void writeEventsBetween(Appendable out, LocalDateTime from, LocalDateTime to,
+                                   List<SimpleImmutableEntry<? extends Task, Integer>> tasksWithTaskNumbers,
+                                   int maxTaskNumber) throws IOException {
+        appendEntries(appendHeader(out, "all your events from " + from.toLocalDate() + ", " + from.toLocalTime()
+            + " to " + to.toLocalDate() + ", " + to.toLocalTime()), tasksWithTaskNumbers, maxTaskNumber);
+    }
+
+    /**
+     * Writes the events that overlap each other, without building the whole output in memory.
+     *
+     * @param out                  where the output is written to
+     * @param tasksWithTaskNumbers the list of events and task numbers, each in a SimpleImmutableEntry
+     * @param maxTaskNumber        the size of the task list. This will ensure proper padding of numbers.
+     * @throws IOException when the output cannot be written.
+     */
+    public void writeConflictingEvents(Appendable out,
+                                       List<SimpleImmutableEntry<? extends Task, Integer>> tasksWithTaskNumbers,
+                                       int maxTaskNumber) throws IOException {
+        if (tasksWithTaskNumbers.isEmpty()) {
+            out.append("None of your events overlap, ").append(name).append('.');
+            return;
+        }
+        appendEntries(appendHeader(out, "all your events that overlap another event"), tasksWithTaskNumbers,
+            maxTaskNumber);
+    }
+
+    private Appendable appendHeader(Appendable out, String whatIsListed) throws IOException {
+        return out.append("Ok, ").append(name).append(". I am getting ").append(whatIsListed).append(":\n");
+    }
+
+    private static void appendEntries(Appendable out,
+                                      List<SimpleImmutableEntry<? extends Task, Integer>> tasksWithTaskNumbers,
+                                      int maxTaskNumber) throws IOException {
+        boolean isFirst = true;
         for (SimpleImmutableEntry<? extends Task, Integer> task : tasksWithTaskNumbers) {
-            result.append(getSingleTaskMessage(task.getKey(), task.getValue(), maxTaskNumber)).append("\n");
+            appendTask(out, task.getKey(), task.getValue(), maxTaskNumber, isFirst);
+            isFirst = false;
+        }
+    }
+
+    /**
+     * Appends a task on its own line, with its number padded to the width of the largest number.
+     * The first line is not padded, and follows the header directly.
+     */
+    private static void appendTask(Appendable out, Task task, int number, int max, boolean isFirst)
+        throws IOException {
+        if (!isFirst) {
+            out.append('\n');
+            for (int i = countDigits(number); i < countDigits(max); i++) {
+                out.append(' '); // For better formatting if numbers exceed 9
+            }
+        }
+        out.append(Integer.toString(number)).append(": ").append(task.toString());
+    }
+
+    private static int countDigits(int number) {
+        int digits = 1;
+        for (int rest = number / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Runs the writing to a StringBuilder, which never throws an IOException.
+     */
+    private static void appendUnchecked(Writing writing) {
+        try {
+            writing.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return result.toString().trim();
     }
 
-    private String getSingleTaskMessage(Task task, int number, int max) {
-        String leadingSpace = " ".repeat((int) Math.log10(max) - (int) Math.log10(number));
-        // For better formatting if numbers exceed 9
-        return String.format("%s%d: %s", leadingSpace, number, task);
+    private interface Writing {
+        void run() throws IOException;
     }
 
     private String displayTaskMessage(Task task) {
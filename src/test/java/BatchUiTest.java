@@ -0,0 +1,46 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import duke.logic.Storage;
+import duke.task.TaskList;
+import duke.ui.BatchUi;
+
+public class BatchUiTest {
+    private static final String FILE_PATH = "batchTestFile.db";
+
+    BatchUiTest() {
+        new File(FILE_PATH).delete();
+        new File(FILE_PATH + ".journal").delete();
+        new File(FILE_PATH).deleteOnExit();
+        new File(FILE_PATH + ".journal").deleteOnExit();
+    }
+
+    @Test
+    void testBatch() throws IOException {
+        TaskList taskList = new TaskList();
+        Storage storage = new Storage(FILE_PATH, taskList);
+        String script = "todo read book\n\ndeadline return book /by 1/1/2030 10:00\nhello\ndone 1\nbye\ntodo ignored\n";
+        StringWriter output = new StringWriter();
+        int failedCount = new BatchUi("Test user", 0).run(new BufferedReader(new StringReader(script)), output,
+            taskList, storage);
+        assertEquals(1, failedCount);
+        assertEquals(2, taskList.size());
+        assertFalse(taskList.isDirty());
+        assertTrue(output.toString().contains("Line 4: "));
+        assertTrue(output.toString().trim().endsWith("Bye, Test user! Hope to see you again soon."));
+
+        TaskList reloaded = new TaskList();
+        new Storage(FILE_PATH, reloaded);
+        assertEquals(2, reloaded.size());
+        assertTrue(reloaded.getTask(1).isDone());
+    }
+}
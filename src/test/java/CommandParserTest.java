@@ -7,6 +7,7 @@ import duke.Duke;
 import duke.exception.InvalidCommandException;
 import duke.exception.InvalidTaskNumberException;
 import duke.logic.CommandParser;
+import duke.metrics.Metrics;
 import duke.ui.Ui;
 import stub.DukeStub;
 
@@ -27,6 +28,14 @@ public class CommandParserTest {
         });
     }
 
+    @Test
+    void testVerbIgnoresCase() {
+        Assertions.assertTrue(ui.checkInput("LiSt", duke).contains("1: [T][ ] hello"));
+        InvalidCommandException e = Assertions.assertThrows(InvalidCommandException.class, () ->
+            new CommandParser("help lists", duke.getTaskList(), duke.getStorage(), ui));
+        Assertions.assertEquals(0, e.getStackTrace().length, "User errors should not capture a stack trace");
+    }
+
     @Test
     void testInvalidTaskCommand() {
         Assertions.assertThrows(InvalidCommandException.class, () -> {
@@ -39,4 +48,95 @@ public class CommandParserTest {
         Assertions.assertThrows(InvalidTaskNumberException.class, () ->
             new CommandParser("done 3", duke.getTaskList(), duke.getStorage(), ui));
     }
+
+    @Test
+    void testListPage() {
+        for (int i = 2; i <= 150; i++) {
+            ui.checkInput("todo hello " + i, duke);
+        }
+        String output = new CommandParser("list 9-10", duke.getTaskList(), duke.getStorage(), ui).getOutput();
+        Assertions.assertEquals("Ok, Test user. I am getting all your tasks:\n"
+            + "9: [T][ ] hello 9\n"
+            + " 10: [T][ ] hello 10", output);
+        output = new CommandParser("find hello --page 2", duke.getTaskList(), duke.getStorage(), ui).getOutput();
+        Assertions.assertTrue(output.contains("101: [T][ ] hello 101") && output.endsWith("150: [T][ ] hello 150"));
+        Assertions.assertFalse(output.contains(" 100: "));
+        output = ui.checkInput("list", duke);
+        Assertions.assertTrue(output.contains("100: [T][ ] hello 100") && !output.contains("101: "));
+        Assertions.assertTrue(output.endsWith("Showing 100 of 150 tasks. Add --page <page number> to the command "
+            + "to see the others, 100 on each page.\n"));
+        Assertions.assertTrue(ui.checkInput("find hello --page 2", duke).endsWith("150: [T][ ] hello 150\n"));
+        Assertions.assertThrows(InvalidCommandException.class, () ->
+            new CommandParser("list 10-9", duke.getTaskList(), duke.getStorage(), ui));
+        Assertions.assertThrows(InvalidCommandException.class, () ->
+            new CommandParser("upcoming --page 0", duke.getTaskList(), duke.getStorage(), ui));
+    }
+
+    @Test
+    void testBulkDoneAndDelete() {
+        for (int i = 2; i <= 30; i++) {
+            ui.checkInput("todo hello " + i, duke);
+        }
+        Assertions.assertTrue(ui.checkInput("done 1-10,20", duke).startsWith("Nice! I've marked 11 tasks as done."));
+        Assertions.assertTrue(ui.checkInput("done 5-12", duke).startsWith("Nice! I've marked 2 tasks as done."));
+        Assertions.assertThrows(InvalidTaskNumberException.class, () ->
+            new CommandParser("delete 1,31", duke.getTaskList(), duke.getStorage(), ui));
+        Assertions.assertEquals(30, duke.getTaskList().size());
+        Assertions.assertThrows(InvalidCommandException.class, () ->
+            new CommandParser("delete 9-3", duke.getTaskList(), duke.getStorage(), ui));
+
+        String output = ui.checkInput("delete 1,3,3,30", duke);
+        Assertions.assertTrue(output.startsWith("Noted. I've removed 3 tasks.\nNow you have 27 tasks"), output);
+        Assertions.assertEquals("hello 2", duke.getTaskList().getTask(1).getDescription());
+        Assertions.assertEquals("hello 4", duke.getTaskList().getTask(2).getDescription());
+        ui.checkInput("delete --done", duke);
+        Assertions.assertEquals(16, duke.getTaskList().size());
+        Assertions.assertEquals("hello 13", duke.getTaskList().getTask(1).getDescription());
+        Assertions.assertTrue(ui.checkInput("delete --done", duke).contains("There are no tasks that are done"));
+    }
+
+    @Test
+    void testBetweenAndConflicts() {
+        ui.checkInput("event standup /from 1/1/2030 9:00 /to 9:30", duke);
+        ui.checkInput("event review /from 1/1/2030 9:15 /to 10:00", duke);
+        ui.checkInput("event lunch /from 1/1/2030 12:00 /to 13:00", duke);
+        ui.checkInput("event trip /from 3/1/2030 8:00 /to 5/1/2030 20:00", duke);
+        String output = ui.checkInput("between 1/1/2030 1/1/2030", duke);
+        Assertions.assertTrue(output.startsWith("Ok, Test user. I am getting all your events from 2030-01-01, 00:00"
+            + " to 2030-01-01, 23:59:\n2: [E][ ] standup"), output);
+        Assertions.assertTrue(output.contains("3: [E][ ] review") && output.contains("4: [E][ ] lunch"), output);
+        Assertions.assertFalse(output.contains("trip"), output);
+        output = ui.checkInput("between 4/1/2030 12:00 4/1/2030 13:00", duke);
+        Assertions.assertTrue(output.contains("5: [E][ ] trip") && !output.contains("lunch"), output);
+        Assertions.assertThrows(InvalidCommandException.class, () ->
+            new CommandParser("between 2/1/2030 1/1/2030", duke.getTaskList(), duke.getStorage(), ui));
+
+        output = ui.checkInput("conflicts", duke);
+        Assertions.assertTrue(output.contains("2: [E][ ] standup") && output.contains("3: [E][ ] review"), output);
+        Assertions.assertFalse(output.contains("lunch") || output.contains("trip"), output);
+        ui.checkInput("done 3", duke);
+        Assertions.assertTrue(ui.checkInput("conflicts", duke).startsWith("None of your events overlap"));
+    }
+
+    @Test
+    void testStats() {
+        String output = ui.checkInput("stats on", duke);
+        Assertions.assertTrue(Metrics.get().isEnabled());
+        try {
+            ui.checkInput("todo bye", duke);
+            ui.checkInput("list", duke);
+            output = ui.checkInput("stats", duke);
+            Assertions.assertTrue(output.contains("Tasks: 2 todo"), output);
+            Assertions.assertTrue(output.contains("\ntodo "), output);
+            Assertions.assertTrue(output.contains("\nlist output "), output);
+            Assertions.assertTrue(Metrics.get().getCommandCounts().get("todo") >= 1);
+        } finally {
+            ui.checkInput("stats off", duke);
+        }
+        Assertions.assertFalse(Metrics.get().isEnabled());
+        ui.checkInput("stats reset", duke);
+        Assertions.assertTrue(ui.checkInput("stats", duke).contains("Metrics are off"));
+        Assertions.assertThrows(InvalidCommandException.class, () ->
+            new CommandParser("stats maybe", duke.getTaskList(), duke.getStorage(), ui));
+    }
 }
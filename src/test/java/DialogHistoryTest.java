@@ -0,0 +1,28 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import duke.ui.DialogHistory;
+
+public class DialogHistoryTest {
+    @Test
+    void testSpilledMessages() throws IOException {
+        try (DialogHistory history = new DialogHistory(10)) {
+            for (int i = 0; i < 1000; i++) {
+                history.add("Message " + i + (i % 7 == 0 ? "\nwith \u00fcnicode" : ""), i % 2 == 0);
+            }
+            assertEquals(1000, history.size());
+            for (int i = 999; i >= 0; i--) {
+                DialogHistory.Message message = history.get(i);
+                assertEquals("Message " + i + (i % 7 == 0 ? "\nwith \u00fcnicode" : ""), message.getText());
+                assertEquals(i % 2 == 0, message.isByUser());
+            }
+            assertTrue(history.get(0).isByUser());
+            assertFalse(history.get(999).isByUser());
+        }
+    }
+}
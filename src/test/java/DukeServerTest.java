@@ -0,0 +1,150 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+
+import duke.server.DukeServer;
+import duke.server.LoadGenerator;
+
+public class DukeServerTest {
+    private static final File DATA_DIRECTORY = new File("serverTestData");
+
+    DukeServerTest() {
+        deleteDataDirectory();
+    }
+
+    @Test
+    void testUsersHaveSeparateLists() throws Exception {
+        try (DukeServer server = startServer();
+             Client alice = new Client(server.getPort());
+             Client bob = new Client(server.getPort())) {
+            assertTrue(alice.send("alice").contains("alice"));
+            bob.send("bob");
+            alice.send("todo read book");
+            alice.send("todo return book");
+            bob.send("todo buy milk");
+            assertTrue(alice.send("list").contains("2: [T][ ] return book"));
+            String bobList = bob.send("list");
+            assertTrue(bobList.contains("1: [T][ ] buy milk"));
+            assertFalse(bobList.contains("book"));
+            assertTrue(alice.send("bye").contains("Bye, alice!"));
+            assertTrue(new File(DATA_DIRECTORY, "alice.txt").exists());
+        } finally {
+            deleteDataDirectory();
+        }
+    }
+
+    @Test
+    void testListSharedAndReloaded() throws Exception {
+        try (DukeServer server = startServer()) {
+            try (Client first = new Client(server.getPort()); Client second = new Client(server.getPort())) {
+                first.send("alice");
+                first.send("todo read book");
+                second.send("alice");
+                assertTrue(second.send("list").contains("1: [T][ ] read book"));
+                first.send("bye");
+                second.send("todo return book");
+                second.send("bye");
+            }
+            try (Client client = new Client(server.getPort())) {
+                client.send("alice"); // Either still loaded, or loaded again once saved
+                assertTrue(client.send("list").contains("2: [T][ ] return book"));
+            }
+        } finally {
+            deleteDataDirectory();
+        }
+    }
+
+    @Test
+    void testBadLinesReported() throws Exception {
+        DATA_DIRECTORY.mkdirs();
+        Files.writeString(new File(DATA_DIRECTORY, "alice.txt").toPath(), "T | 0 | read book\nnot a task\n");
+        try (DukeServer server = startServer(); Client client = new Client(server.getPort())) {
+            assertTrue(client.send("alice").contains("1 line(s) could not be read"));
+        } finally {
+            deleteDataDirectory();
+        }
+    }
+
+    @Test
+    void testInvalidName() throws Exception {
+        try (DukeServer server = startServer(); Client client = new Client(server.getPort())) {
+            assertTrue(client.send("../alice").startsWith("Please connect again"));
+        } finally {
+            deleteDataDirectory();
+        }
+    }
+
+    @Test
+    void testLoadGenerator() throws Exception {
+        try (DukeServer server = startServer()) {
+            long[] latencies = new LoadGenerator(server.getPort()).run(4, 50);
+            assertEquals(200, latencies.length);
+        } finally {
+            deleteDataDirectory();
+        }
+    }
+
+    private static DukeServer startServer() throws IOException {
+        DukeServer server = new DukeServer(0, DATA_DIRECTORY);
+        Thread thread = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return server;
+    }
+
+    private static void deleteDataDirectory() {
+        File[] files = DATA_DIRECTORY.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        DATA_DIRECTORY.delete();
+    }
+
+    private static class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+        }
+
+        String send(String line) throws IOException {
+            out.println(line);
+            StringBuilder reply = new StringBuilder();
+            for (String replyLine = in.readLine(); !DukeServer.SEPARATOR.equals(replyLine);
+                 replyLine = in.readLine()) {
+                reply.append(replyLine).append('\n');
+            }
+            return reply.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import duke.metrics.LatencyHistogram;
+
+public class LatencyHistogramTest {
+    @Test
+    void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getPercentileNanos(99));
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 1_000_000; nanos++) {
+            histogram.record(nanos * 1000);
+        }
+        Assertions.assertEquals(1_000_000, histogram.getCount());
+        Assertions.assertEquals(1_000_000_000L, histogram.getMaxNanos());
+        Assertions.assertEquals(1_000_000_000L, histogram.getPercentileNanos(100));
+        for (double percentile : new double[] {1, 50, 90, 99, 99.9}) {
+            double expected = percentile * 10_000_000;
+            double actual = histogram.getPercentileNanos(percentile);
+            Assertions.assertTrue(actual >= expected && actual <= expected * 1.04,
+                percentile + "th percentile was " + actual);
+        }
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getMaxNanos());
+    }
+}
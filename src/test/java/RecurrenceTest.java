@@ -0,0 +1,82 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import duke.exception.DukeException;
+import duke.task.Recurrence;
+
+class RecurrenceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2090, 1, 31, 9, 30); // A Tuesday
+
+    @Test
+    void testAlign() {
+        assertEquals(START, Recurrence.parse("weekday").align(START));
+        assertEquals(LocalDateTime.of(2090, 2, 6, 9, 30), Recurrence.parse("Mon").align(START));
+        assertEquals(LocalDateTime.of(2090, 2, 6, 9, 30), Recurrence.parse("weekdays").align(START.plusDays(4)));
+        assertEquals("every monday", Recurrence.parse(" MONDAY ").toString());
+        assertThrows(DukeException.class, () -> Recurrence.parse("fortnight"));
+    }
+
+    @Test
+    void testMonthsCountedFromFirst() {
+        Recurrence monthly = Recurrence.parse("month");
+        LocalDateTime february = monthly.getFirstAfter(START, START);
+        assertEquals(LocalDateTime.of(2090, 2, 28, 9, 30), february);
+        assertEquals(LocalDateTime.of(2090, 3, 31, 9, 30), monthly.getFirstAfter(START, february));
+    }
+
+    @Test
+    void testFirstAtOrAfterMatchesStepping() {
+        Random random = new Random(3);
+        for (String rule : new String[] {"day", "weekday", "week", "month", "year", "sun", "friday"}) {
+            Recurrence recurrence = Recurrence.parse(rule);
+            LocalDateTime first = recurrence.align(START);
+            List<LocalDateTime> occurrences = step(rule, first, 500);
+            for (int i = 0; i < 1000; i++) {
+                LocalDateTime from = first.minusDays(3).plusMinutes(random.nextInt(
+                    (int) Duration.between(first, occurrences.get(occurrences.size() - 2)).toMinutes()));
+                LocalDateTime expected = occurrences.stream().filter(occurrence -> !occurrence.isBefore(from))
+                    .findFirst().orElseThrow();
+                assertEquals(expected, recurrence.getFirstAtOrAfter(first, from), rule + " from " + from);
+            }
+        }
+    }
+
+    /**
+     * Lists the occurrences by stepping from the first one, as the rules are defined.
+     */
+    private static List<LocalDateTime> step(String rule, LocalDateTime first, int count) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        LocalDateTime day = first;
+        for (int n = 0; occurrences.size() < count; n++) {
+            switch (rule) {
+            case "day":
+                occurrences.add(first.plusDays(n));
+                break;
+            case "weekday":
+                if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                    occurrences.add(day);
+                }
+                day = day.plusDays(1);
+                break;
+            case "month":
+                occurrences.add(first.plusMonths(n));
+                break;
+            case "year":
+                occurrences.add(first.plusYears(n));
+                break;
+            default:
+                occurrences.add(first.plusWeeks(n));
+            }
+        }
+        return occurrences;
+    }
+}
@@ -0,0 +1,173 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import duke.reminder.Reminders;
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Recurrence;
+import duke.task.RecurringEvent;
+import duke.task.Task;
+import duke.task.TaskList;
+import duke.task.Todo;
+
+class RemindersTest {
+    private static final LocalDateTime START = LocalDateTime.of(2090, 1, 1, 0, 0);
+    private final MutableClock clock = new MutableClock(START.toInstant(ZoneOffset.UTC));
+    private final List<Task> shown = new ArrayList<>();
+
+    @Test
+    void testRemindersBeforeTasks() {
+        TaskList taskList = new TaskList(100);
+        taskList.addTask(new Deadline("Submit report", START.plusHours(1)));
+        taskList.addTask(new Todo("Read book"));
+        Reminders reminders = new Reminders(Duration.ofMinutes(10), clock, shown::add);
+        reminders.watch(taskList);
+        taskList.addTask(new Event("Mid-term", START.plusMinutes(30), START.plusHours(2)));
+        assertEquals(2, reminders.getPendingCount());
+
+        clock.advance(Duration.ofMinutes(19).plusSeconds(59));
+        reminders.showDueReminders();
+        assertTrue(shown.isEmpty());
+        clock.advance(Duration.ofSeconds(1));
+        reminders.showDueReminders();
+        assertEquals(List.of("Mid-term"), names(shown));
+        clock.advance(Duration.ofHours(5));
+        reminders.showDueReminders();
+        assertEquals(List.of("Mid-term", "Submit report"), names(shown));
+        assertEquals(0, reminders.getPendingCount());
+    }
+
+    @Test
+    void testDoneAndRemovedTasksAreCancelled() {
+        TaskList taskList = new TaskList(100);
+        Reminders reminders = new Reminders(Duration.ZERO, clock, shown::add);
+        reminders.watch(taskList);
+        for (int i = 1; i <= 5; i++) {
+            taskList.addTask(new Deadline("Deadline " + i, START.plusMinutes(i)));
+        }
+        taskList.markAsDone(2);
+        taskList.removeTasks(new int[] {4, 5});
+        assertEquals(2, reminders.getPendingCount());
+        reminders.close();
+        taskList.addTask(new Deadline("Not watched", START.plusMinutes(1)));
+
+        clock.advance(Duration.ofHours(1));
+        reminders.showDueReminders();
+        assertEquals(List.of("Deadline 1", "Deadline 3"), names(shown));
+    }
+
+    @Test
+    void testLoadedTasksScheduledOnNextTick() {
+        TaskList taskList = new TaskList(100);
+        Reminders reminders = new Reminders(Duration.ZERO, clock, shown::add);
+        reminders.watch(taskList);
+        List<Task> loaded = List.of(new Todo("Read book"), new Deadline("Submit report", START.plusHours(1)),
+            new Deadline("Pay bills", START.minusHours(1)));
+        taskList.addTasksLazily(loaded.size(), loaded::get);
+        assertEquals(0, reminders.getPendingCount());
+
+        reminders.showDueReminders();
+        assertEquals(1, reminders.getPendingCount());
+        clock.advance(Duration.ofHours(2));
+        reminders.showDueReminders();
+        assertEquals(List.of("Submit report"), names(shown));
+    }
+
+    @Test
+    void testRecurringTaskRemindedOfEachOccurrence() {
+        TaskList taskList = new TaskList(100);
+        Reminders reminders = new Reminders(Duration.ofMinutes(10), clock, shown::add);
+        reminders.watch(taskList);
+        taskList.addTask(new RecurringEvent("Standup", START.plusHours(1), START.plusHours(1).plusMinutes(15),
+            Recurrence.parse("day")));
+        for (int day = 0; day < 3; day++) {
+            clock.advance(Duration.ofMinutes(50));
+            reminders.showDueReminders();
+            assertEquals(START.plusDays(day).plusHours(1), shown.get(day).getDateTime());
+            clock.advance(Duration.ofMinutes(1430));
+        }
+        assertEquals(1, reminders.getPendingCount());
+        taskList.markAsDone(1);
+        assertEquals(0, reminders.getPendingCount());
+    }
+
+    @Test
+    void testManyReminders() {
+        TaskList taskList = new TaskList(1_000_000);
+        Reminders reminders = new Reminders(Duration.ZERO, clock, shown::add);
+        reminders.watch(taskList);
+        Random random = new Random(7);
+        int count = 100_000;
+        for (int i = 0; i < count; i++) {
+            // Up to about three years ahead, beyond the reach of the lower wheels
+            taskList.addTask(new Deadline(Integer.toString(i), START.plusSeconds(1 + random.nextInt(100_000_000))));
+        }
+        for (int taskNumber = count; taskNumber >= 1; taskNumber -= 3) {
+            taskList.removeTask(taskNumber);
+        }
+        int expected = taskList.size();
+        assertEquals(expected, reminders.getPendingCount());
+
+        LocalDateTime last = START;
+        while (!last.isAfter(START.plusSeconds(100_000_000))) {
+            int shownBefore = shown.size();
+            clock.advance(Duration.ofSeconds(1 + random.nextInt(400_000)));
+            reminders.showDueReminders();
+            LocalDateTime now = LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+            for (Task task : shown.subList(shownBefore, shown.size())) {
+                assertTrue(task.getDateTime().isAfter(last) && !task.getDateTime().isAfter(now),
+                    task + " was not shown between " + last + " and " + now);
+            }
+            assertEquals(expected - shown.size(), reminders.getPendingCount());
+            last = now;
+        }
+        assertEquals(expected, shown.size());
+    }
+
+    private static List<String> names(List<Task> tasks) {
+        List<String> names = new ArrayList<>();
+        for (Task task : tasks) {
+            names.add(task.getDescription());
+        }
+        return names;
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
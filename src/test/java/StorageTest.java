@@ -0,0 +1,263 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import duke.logic.BinarySnapshot;
+import duke.logic.Storage;
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Recurring;
+import duke.task.Task;
+import duke.task.TaskList;
+import duke.task.TasksEnum;
+import duke.task.Todo;
+
+public class StorageTest {
+    private static final String FILE_PATH = "storageTestFile.db";
+    private static final String BINARY_FILE_PATH = "storageTestFile.dkb";
+
+    StorageTest() {
+        for (String path : new String[] {FILE_PATH, BINARY_FILE_PATH}) {
+            new File(path).delete();
+            new File(path + ".journal").delete();
+            new File(path + ".quarantine").delete();
+            new File(path).deleteOnExit();
+            new File(path + ".journal").deleteOnExit();
+            new File(path + ".quarantine").deleteOnExit();
+        }
+    }
+
+    @Test
+    void testJournalReplay() throws IOException {
+        TaskList taskList = new TaskList();
+        Storage storage = new Storage(FILE_PATH, taskList);
+        for (int i = 1; i <= 3; i++) {
+            Todo todo = new Todo("Task " + i);
+            taskList.addTask(todo);
+            storage.recordAddedTask(todo);
+        }
+        taskList.markAsDone(2);
+        storage.recordDoneTask(2);
+        taskList.removeTask(1);
+        storage.recordRemovedTask(1);
+        storage.flush();
+        assertEquals(0, new File(FILE_PATH).length(), "Data file should not be rewritten");
+
+        TaskList reloaded = new TaskList();
+        new Storage(FILE_PATH, reloaded);
+        assertEquals(2, reloaded.size());
+        assertEquals("Task 2", reloaded.getTask(1).getDescription());
+        assertTrue(reloaded.getTask(1).isDone());
+    }
+
+    @Test
+    void testBulkJournalReplay() throws IOException {
+        TaskList taskList = new TaskList();
+        Storage storage = new Storage(FILE_PATH, taskList);
+        for (int i = 1; i <= 20; i++) {
+            Todo todo = new Todo("Task " + i);
+            taskList.addTask(todo);
+            storage.recordAddedTask(todo);
+        }
+        storage.flush();
+        taskList.markAsDone(new int[] {1, 2, 3, 10});
+        storage.recordDoneTasks(new int[] {1, 2, 3, 10});
+        taskList.removeTasks(new int[] {3, 7, 9, 10, 11});
+        storage.recordRemovedTasks(new int[] {3, 7, 9, 10, 11});
+        storage.flush();
+        String journal = Files.readString(new File(FILE_PATH + ".journal").toPath());
+        assertTrue(journal.endsWith("X | 1-3,10\nR | 3,7,9-11\n"), journal);
+
+        TaskList reloaded = new TaskList();
+        new Storage(FILE_PATH, reloaded);
+        assertEquals(taskList.getTasks().toString(), reloaded.getTasks().toString());
+        assertEquals(15, reloaded.size());
+    }
+
+    @Test
+    void testStaleJournalIgnored() throws IOException {
+        TaskList taskList = new TaskList();
+        Storage storage = new Storage(FILE_PATH, taskList);
+        Todo todo = new Todo("Only task");
+        taskList.addTask(todo);
+        storage.recordAddedTask(todo);
+        storage.flush();
+        String journal = Files.readString(new File(FILE_PATH + ".journal").toPath());
+        storage.updateDukeTextFile();
+        // As if the program stopped after writing the snapshot but before resetting the journal
+        Files.writeString(new File(FILE_PATH + ".journal").toPath(), journal);
+
+        TaskList reloaded = new TaskList();
+        new Storage(FILE_PATH, reloaded);
+        assertEquals(1, reloaded.size());
+    }
+
+    @Test
+    void testBinarySnapshot() throws IOException {
+        TaskList taskList = new TaskList();
+        Storage storage = new Storage(BINARY_FILE_PATH, taskList);
+        taskList.addTask(new Todo("Buy milk"));
+        taskList.addTask(new Deadline("Submit report", LocalDateTime.of(2021, 10, 1, 23, 59)));
+        taskList.addTask(new Event("Mid-term", LocalDateTime.of(2021, 9, 19, 9, 0),
+            LocalDateTime.of(2021, 9, 19, 11, 30)));
+        taskList.markAsDone(2);
+        storage.updateDukeTextFile();
+        assertTrue(BinarySnapshot.isBinarySnapshot(new File(BINARY_FILE_PATH)));
+
+        TaskList reloaded = new TaskList();
+        Storage reloadedStorage = new Storage(BINARY_FILE_PATH, reloaded);
+        assertEquals(3, reloaded.size());
+        reloaded.removeTask(1);
+        reloadedStorage.updateDukeTextFile(); // Replaces the file that the tasks were decoded from
+        TaskList compacted = new TaskList();
+        new Storage(BINARY_FILE_PATH, compacted);
+        assertEquals(2, compacted.size());
+        for (int i = 1; i <= 2; i++) {
+            assertEquals(taskList.getTask(i + 1).getDataLine(), reloaded.getTask(i).getDataLine());
+            assertEquals(taskList.getTask(i + 1).getDataLine(), compacted.getTask(i).getDataLine());
+        }
+    }
+
+    @Test
+    void testRecurringTasksSaved() throws IOException {
+        for (String path : new String[] {FILE_PATH, BINARY_FILE_PATH}) {
+            TaskList taskList = new TaskList();
+            Storage storage = new Storage(path, taskList);
+            Task standup = TasksEnum.EVENT.getTask("standup /from 7/1/2090 9:00 /to 9:15 /every weekday");
+            Task rent = TasksEnum.DEADLINE.getTask("rent /by 31/1/2090 12:00 /every month");
+            taskList.addTask(standup);
+            storage.recordAddedTask(standup);
+            taskList.addTask(rent);
+            storage.recordAddedTask(rent);
+            storage.flush(); // Replayed from the journal
+
+            TaskList replayed = new TaskList();
+            new Storage(path, replayed);
+            storage.updateDukeTextFile(); // Read from the snapshot
+            TaskList reloaded = new TaskList();
+            new Storage(path, reloaded);
+            for (TaskList loaded : new TaskList[] {replayed, reloaded}) {
+                assertEquals("E | 0 | standup | 2090-01-09 09:00 | 2090-01-09 09:15 | every weekday",
+                    loaded.getTask(1).getDataLine(), path);
+                assertEquals("D | 0 | rent | 2090-01-31 12:00 | every month", loaded.getTask(2).getDataLine(), path);
+                assertTrue(loaded.getTask(1) instanceof Recurring);
+            }
+        }
+    }
+
+    @Test
+    void testWriteBehind() throws IOException {
+        TaskList taskList = new TaskList();
+        Storage storage = new Storage(FILE_PATH, taskList);
+        storage.enableWriteBehind(60_000);
+        for (int i = 1; i <= 100; i++) { // Enough records to compact the journal into the data file
+            Todo todo = new Todo("Task " + i);
+            taskList.addTask(todo);
+            storage.recordAddedTask(todo);
+            storage.flush();
+        }
+        taskList.markAsDone(100);
+        storage.recordDoneTask(100);
+        storage.flush();
+        assertEquals(0, new File(FILE_PATH).length(), "Changes should not be written yet");
+
+        storage.sync();
+        TaskList reloaded = new TaskList();
+        new Storage(FILE_PATH, reloaded);
+        assertEquals(100, reloaded.size());
+        assertTrue(reloaded.getTask(100).isDone());
+    }
+
+    @Test
+    void testFailedWriteBehindRecovered() throws IOException {
+        TaskList taskList = new TaskList();
+        Storage storage = new Storage(FILE_PATH, taskList);
+        storage.enableWriteBehind(0);
+        File journal = new File(FILE_PATH + ".journal");
+        for (int i = 1; i <= 3; i++) {
+            Todo todo = new Todo("Task " + i);
+            taskList.addTask(todo);
+            storage.recordAddedTask(todo);
+            storage.flush();
+            if (i == 1) {
+                storage.sync();
+                journal.delete();
+                journal.mkdir(); // The journal cannot be written, even by a user who may write read-only files
+            } else if (i == 2) {
+                assertThrows(IOException.class, storage::sync);
+                journal.delete();
+            }
+        }
+        taskList.removeTask(1);
+        storage.recordRemovedTask(1);
+        storage.sync();
+
+        TaskList reloaded = new TaskList();
+        new Storage(FILE_PATH, reloaded);
+        assertEquals(2, reloaded.size());
+        assertEquals("Task 2", reloaded.getTask(1).getDescription());
+        assertEquals("Task 3", reloaded.getTask(2).getDescription());
+    }
+
+    @Test
+    void testLargeFileLoaded() throws IOException {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 40000; i++) {
+            data.append(i % 2 == 0 ? "T | 1 | read book " + i : "D | 0 | return book " + i + " | 2030-01-01 10:00")
+                .append(i % 5 == 0 ? "\r\n" : "\n");
+        }
+        Files.writeString(new File(FILE_PATH).toPath(), data);
+        assertTrue(new File(FILE_PATH).length() > 1 << 20, "File should be large enough to be split into chunks");
+        TaskList taskList = new TaskList();
+        new Storage(FILE_PATH, taskList);
+        assertEquals(40000, taskList.size());
+        assertEquals("read book 0", taskList.getTask(1).getDescription());
+        assertTrue(taskList.getTask(1).isDone());
+        assertEquals("D | 0 | return book 39999 | 2030-01-01 10:00", taskList.getTask(40000).getDataLine());
+    }
+
+    @Test
+    void testBadLinesQuarantined() throws IOException {
+        Files.writeString(new File(FILE_PATH).toPath(),
+            "T | 0 | first\nX | 0 | unknown type\nD | 1\nT | 1 | second\n");
+        TaskList taskList = new TaskList();
+        Storage storage = new Storage(FILE_PATH, taskList);
+        assertEquals(2, taskList.size());
+        assertEquals("second", taskList.getTask(2).getDescription());
+        assertEquals(2, storage.getLoadReport().getLoadedCount());
+        assertEquals(2, storage.getLoadReport().getQuarantinedCount());
+        String quarantined = Files.readString(storage.getLoadReport().getQuarantineFile().toPath());
+        assertTrue(quarantined.contains(" line 2 of storageTestFile.db: ") && quarantined.contains("\nD | 1\n"));
+        assertEquals("T | 0 | first\nT | 1 | second\n", Files.readString(new File(FILE_PATH).toPath()),
+            "Data file should be rewritten without the bad lines");
+
+        Storage reloaded = new Storage(FILE_PATH, new TaskList());
+        assertEquals(0, reloaded.getLoadReport().getQuarantinedCount());
+    }
+
+    @Test
+    void testFailedLoadKeepsJournal() throws IOException {
+        String data = "T | 0 | first\nX | 0 | unknown type\nT | 1 | second\n";
+        Files.writeString(new File(FILE_PATH).toPath(), data);
+        File journal = new File(FILE_PATH + ".journal");
+        Files.writeString(journal.toPath(), "# 1234abcd\nA | T | 0 | third\n");
+        File quarantine = new File(FILE_PATH + ".quarantine");
+        quarantine.mkdir(); // The bad line cannot be quarantined
+        TaskList taskList = new TaskList();
+        try {
+            assertThrows(IOException.class, () -> new Storage(FILE_PATH, taskList));
+        } finally {
+            quarantine.delete();
+        }
+        assertEquals(0, taskList.size(), "No task should be loaded if a bad line cannot be quarantined");
+        assertEquals(data, Files.readString(new File(FILE_PATH).toPath()));
+        assertEquals("# 1234abcd\nA | T | 0 | third\n", Files.readString(journal.toPath()));
+    }
+}
@@ -5,11 +5,22 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDateTime;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
 import duke.exception.DukeException;
 import duke.exception.InvalidTaskNumberException;
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Task;
 import duke.task.TaskList;
 import duke.task.TasksEnum;
 import duke.task.Todo;
@@ -46,6 +57,54 @@ class TaskListTest {
         assertTrue(taskList.getTask(1).isDone());
     }
 
+    @Test
+    void testLinesUpdatedWhenDone() {
+        Task event = new Event("Mid-term", LocalDateTime.of(2019, 9, 19, 9, 0),
+            LocalDateTime.of(2019, 9, 19, 11, 30));
+        taskList.addTask(event);
+        assertEquals("[E][ ] Mid-term (from: 2019-09-19, 09:00 to: 2019-09-19, 11:30)", event.toString());
+        assertEquals("E | 0 | Mid-term | 2019-09-19 09:00 | 2019-09-19 11:30", event.getDataLine());
+        taskList.markAsDone(5);
+        assertEquals("[E][X] Mid-term (from: 2019-09-19, 09:00 to: 2019-09-19, 11:30)", event.toString());
+        assertEquals("E | 1 | Mid-term | 2019-09-19 09:00 | 2019-09-19 11:30", event.getDataLine());
+    }
+
+    @Test
+    void testColumnarList() {
+        TaskList columnarList = new TaskList(LIMIT, true);
+        columnarList.addTask(new Todo("Buy caf\u00e9 beans"));
+        columnarList.addTask(new Deadline("Submit report", LocalDateTime.of(2090, 10, 1, 23, 59)));
+        columnarList.addTask(new Event("Mid-term", LocalDateTime.of(2090, 9, 19, 9, 0),
+            LocalDateTime.of(2090, 9, 19, 11, 30)));
+        columnarList.addTask(new TaskStub("Stub", LocalDateTime.of(2090, 1, 1, 0, 0, 30)));
+        assertTrue(columnarList.markAsDone(2));
+        assertFalse(columnarList.markAsDone(2));
+        columnarList.removeTask(1);
+        assertEquals("D | 1 | Submit report | 2090-10-01 23:59", columnarList.getTask(1).getDataLine());
+        assertEquals("E | 0 | Mid-term | 2090-09-19 09:00 | 2090-09-19 11:30", columnarList.getTask(2).getDataLine());
+        assertEquals("Stub", columnarList.getTask(3).getDescription());
+        assertEquals(2, columnarList.getUpcomingTasks().size());
+        columnarList.addTask(new Todo("Sell caf\u00e9 beans"));
+        assertEquals(4, columnarList.getTasksContaining("CAF\u00c9").get(0).getValue());
+    }
+
+    @Test
+    void testDirtyOnlyAfterChange() {
+        taskList.markAsSaved();
+        taskList.markAsDone(1); // already done
+        assertFalse(taskList.isDirty());
+        taskList.markAsDone(2);
+        assertTrue(taskList.isDirty());
+    }
+
+    @Test
+    void testStableTaskIds() {
+        int idOfFourth = taskList.getTaskId(4);
+        taskList.removeTask(2);
+        assertEquals(3, taskList.getTaskNumber(idOfFourth));
+        assertEquals(idOfFourth, taskList.getTaskId(3));
+    }
+
     @Test
     void testEmptyTaskList() {
         TaskList tl = new TaskList(1);
@@ -89,6 +148,21 @@ class TaskListTest {
         assertEquals(1, tl.getUpcomingTasks().get(7).getValue(), "Todo item must be last");
     }
 
+    @Test
+    void testUpcomingAfterChanges() {
+        TaskList tl = new TaskList(9);
+        tl.addTask(new TaskStub("First", LocalDateTime.of(2090, 1, 2, 0, 0)));
+        assertEquals(1, tl.getUpcomingTasks().size());
+        tl.addTask(new TaskStub("Second", LocalDateTime.of(2090, 1, 1, 0, 0)));
+        tl.addTask(new Todo("Third"));
+        assertEquals("Second", tl.getUpcomingTasks().get(0).getKey().getDescription());
+        tl.removeTask(2);
+        assertEquals(1, tl.getUpcomingTasks().get(0).getValue());
+        tl.markAsDone(1);
+        assertEquals(1, tl.getUpcomingTasks().size());
+        assertEquals(2, tl.getUpcomingTasks().get(0).getValue(), "Only the todo should be left");
+    }
+
     @Test
     void testTaskFinder() {
         TaskList tl = new TaskList(5);
@@ -100,5 +174,184 @@ class TaskListTest {
         assertEquals("Two: bye 123", tl.getTasksContaining("by").get(0).getKey().getDescription());
         assertEquals("Five: hey", tl.getTasksContaining(" hEy").get(0).getKey().getDescription());
         assertEquals(0, tl.getTasksContaining("ok").size());
+        assertEquals(2, tl.getTasksContaining("HELLO 123").size());
+        tl.removeTask(1);
+        tl.addTask(new Todo("Six: hello"));
+        assertEquals("Three: hello bye 123", tl.getTasksContaining("hello").get(0).getKey().getDescription());
+        assertEquals(5, tl.getTasksContaining("hello").get(1).getValue());
+    }
+
+    @Test
+    void testSnapshotUnchangedByLaterChanges() {
+        List<Task> snapshot = taskList.getTasks();
+        assertTrue(snapshot == taskList.getTasks(), "Snapshot should be shared until the next change");
+        taskList.removeTask(2);
+        taskList.addTask(new Todo("New task"));
+        assertEquals(4, snapshot.size());
+        assertEquals("Hello World", snapshot.get(3).getDescription());
+        assertEquals("New task", taskList.getTasks().get(3).getDescription());
+    }
+
+    @Test
+    void testConcurrentReadsAndWrites() throws Exception {
+        TaskList tl = new TaskList();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                readers.add(executor.submit(() -> {
+                    for (int j = 0; j < 2000; j++) {
+                        List<Task> tasks = tl.getTasks();
+                        long removedCount = tasks.stream()
+                            .filter(task -> task.getDescription().startsWith("Removed")).count();
+                        assertTrue(removedCount <= 1, "Snapshot should be taken between changes");
+                        tl.getTasksContaining("task");
+                        List<AbstractMap.SimpleImmutableEntry<? extends Task, Integer>> upcoming =
+                            tl.getUpcomingTasks();
+                        for (int k = 1; k < upcoming.size(); k++) {
+                            assertTrue(upcoming.get(k - 1).getKey().getEpochSecond()
+                                <= upcoming.get(k).getKey().getEpochSecond(), "Upcoming tasks should be in order");
+                        }
+                    }
+                }));
+            }
+            for (int i = 0; i < 2000; i++) {
+                tl.addTask(new Deadline("task " + i, LocalDateTime.of(2090, 1, 1, 0, 0).plusMinutes(i)));
+                tl.addTask(new Todo("Removed " + i));
+                tl.removeTask(tl.size());
+                if (i % 3 == 0) {
+                    tl.markAsDone(tl.size());
+                }
+            }
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(2000, tl.size());
+        assertEquals(1333, tl.getUpcomingTasks().size());
+        assertEquals(2000, tl.getTasksContaining("task").size());
+    }
+
+    @Test
+    void testEventsBetweenAndConflicts() {
+        TaskList tl = new TaskList();
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+        Random random = new Random(42);
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            LocalDateTime start = base.plusMinutes(15 * random.nextInt(2000));
+            Event event = new Event("event " + i, start, start.plusMinutes(15 * random.nextInt(6)));
+            events.add(event);
+            tl.addTask(event);
+            if (i % 4 == 0) {
+                tl.addTask(new Todo("todo " + i));
+            }
+        }
+        tl.getConflictingEvents(); // The index is then kept up to date by the changes below
+        for (int i = 0; i < 50; i++) {
+            Task removed = tl.removeTask(1 + random.nextInt(tl.size()));
+            events.remove(removed);
+            if (i % 2 == 0) {
+                tl.markAsDone(1 + random.nextInt(tl.size()));
+            }
+        }
+
+        LocalDateTime from = base.plusHours(100);
+        LocalDateTime to = base.plusHours(130);
+        List<Task> expected = new ArrayList<>();
+        for (Task task : tl.getTasks()) {
+            if (task instanceof Event && !task.getDateTime().isAfter(to)
+                && !((Event) task).getEndDateTime().isBefore(from)) {
+                expected.add(task);
+            }
+        }
+        expected.sort((task, other) -> task.getDateTime().compareTo(other.getDateTime()));
+        List<Task> actual = new ArrayList<>();
+        for (AbstractMap.SimpleImmutableEntry<? extends Task, Integer> entry : tl.getEventsBetween(from, to)) {
+            assertEquals(tl.getTask(entry.getValue()), entry.getKey());
+            actual.add(entry.getKey());
+        }
+        assertEquals(expected, actual);
+
+        List<Event> pending = new ArrayList<>();
+        for (Event event : events) {
+            if (!event.isDone()) {
+                pending.add(event);
+            }
+        }
+        List<Task> expectedConflicts = new ArrayList<>();
+        for (Event event : pending) {
+            for (Event other : pending) {
+                if (event != other && (event.getDateTime().equals(other.getDateTime())
+                    || event.getDateTime().isBefore(other.getEndDateTime())
+                    && other.getDateTime().isBefore(event.getEndDateTime()))) {
+                    expectedConflicts.add(event);
+                    break;
+                }
+            }
+        }
+        List<AbstractMap.SimpleImmutableEntry<? extends Task, Integer>> conflicts = tl.getConflictingEvents();
+        assertEquals(expectedConflicts.size(), conflicts.size());
+        for (AbstractMap.SimpleImmutableEntry<? extends Task, Integer> entry : conflicts) {
+            assertTrue(expectedConflicts.contains(entry.getKey()));
+        }
+    }
+
+    @Test
+    void testRecurringTasks() {
+        TaskList tl = new TaskList();
+        tl.addTask(TasksEnum.EVENT.getTask("standup /from 6/1/2090 9:00 /to 9:15 /every weekday")); // Friday
+        tl.addTask(new Event("review", LocalDateTime.of(2090, 1, 9, 9, 10), LocalDateTime.of(2090, 1, 9, 10, 0)));
+        tl.addTask(TasksEnum.DEADLINE.getTask("rent /by 31/1/2090 12:00 /every month"));
+        tl.addTask(new Deadline("report", LocalDateTime.of(2090, 1, 8, 12, 0)));
+        assertEquals(List.of("1: standup 2090-01-06T09:00", "4: report 2090-01-08T12:00",
+            "2: review 2090-01-09T09:10", "3: rent 2090-01-31T12:00"), describe(tl.getUpcomingTasks()));
+
+        tl.addTask(TasksEnum.EVENT.getTask("gym /from 2/1/2090 18:00 /every sat")); // Added to the built indexes
+        assertEquals("5: gym 2090-01-07T18:00", describe(tl.getUpcomingTasks()).get(1));
+        LocalDateTime from = LocalDateTime.of(2090, 1, 6, 12, 0);
+        LocalDateTime to = LocalDateTime.of(2090, 1, 10, 9, 0);
+        assertEquals(List.of("5: gym 2090-01-07T18:00", "1: standup 2090-01-09T09:00", "2: review 2090-01-09T09:10",
+            "1: standup 2090-01-10T09:00"), describe(tl.getEventsBetween(from, to)));
+        assertEquals(List.of("1: standup 2090-01-09T09:00", "2: review 2090-01-09T09:10"),
+            describe(tl.getConflictingEvents()));
+        assertEquals(5, tl.size(), "Each recurring task is stored once");
+
+        tl.markAsDone(1);
+        tl.removeTask(3);
+        assertEquals(List.of("4: gym 2090-01-07T18:00", "3: report 2090-01-08T12:00", "2: review 2090-01-09T09:10"),
+            describe(tl.getUpcomingTasks()));
+        assertTrue(tl.getConflictingEvents().isEmpty());
+        assertTrue(tl.getEventsBetween(from, to).get(1).getKey().isDone(), "Occurrences of a done task are done");
+    }
+
+    @Test
+    void testCountTasksByType() {
+        List<Task> loaded = List.of(new Todo("read"), new Deadline("report", LocalDateTime.of(2090, 1, 1, 12, 0)),
+            new Todo("write"));
+        AtomicInteger decodeCount = new AtomicInteger();
+        TaskList tl = new TaskList(LIMIT);
+        tl.addTask(new Event("party", LocalDateTime.of(2090, 1, 2, 18, 0), LocalDateTime.of(2090, 1, 2, 22, 0)));
+        tl.addTasksLazily(loaded.size(), index -> {
+            decodeCount.incrementAndGet();
+            return loaded.get(index);
+        }, index -> loaded.get(index).getClass());
+        assertEquals(Map.of(Event.class, 1, Todo.class, 2, Deadline.class, 1), tl.countTasksByType());
+        assertEquals(0, decodeCount.get(), "Counting does not decode the tasks");
+
+        tl.removeTasks(new int[] {1, 4});
+        tl.addTask(new Deadline("rent", LocalDateTime.of(2090, 1, 31, 12, 0)));
+        assertEquals(Map.of(Todo.class, 1, Deadline.class, 2), tl.countTasksByType());
+    }
+
+    private static List<String> describe(List<AbstractMap.SimpleImmutableEntry<? extends Task, Integer>> entries) {
+        List<String> descriptions = new ArrayList<>();
+        for (AbstractMap.SimpleImmutableEntry<? extends Task, Integer> entry : entries) {
+            descriptions.add(entry.getValue() + ": " + entry.getKey().getDescription() + " "
+                + entry.getKey().getDateTime());
+        }
+        return descriptions;
     }
 }
@@ -16,6 +16,11 @@ public class StorageStub extends Storage {
         file.delete();
     }
 
+    @Override
+    public void flush() {
+        // do nothing
+    }
+
     @Override
     public void updateDukeTextFile() {
         // do nothing